@@ -0,0 +1,146 @@
+/*----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac BatchSolver.java
+ *  Execution:     java BatchSolver dir|manifest [threads] [maxNodes] [seconds] [heuristic]
+ *
+ *  Solves many puzzle files in one JVM on a work-stealing pool. The
+ *  puzzles are every *.txt file of a directory, or the files listed
+ *  one per line in a manifest (relative to the manifest's directory;
+ *  blank lines and lines starting with # are skipped). Each worker
+ *  thread keeps one Solver.Workspace, so the closed set is reused from
+ *  puzzle to puzzle. A search that expands more than maxNodes nodes or
+ *  runs longer than the given seconds gives up (default: no limit).
+ *
+ *  One CSV row is printed per puzzle as soon as it finishes, so rows
+ *  come out in completion order; status is solved, unsolvable,
+ *  budget or error. An error row names the exception and its message
+ *  (commas removed) in the last column, which is empty otherwise.
+ *
+ *  % java BatchSolver puzzles 8 2000000 10 linear
+ *  file,status,moves,expanded,millis,error
+ *  puzzles/puzzle04.txt,solved,4,5,0.3,
+ *  puzzles/bad.txt,error,-1,0,0.1,java.util.NoSuchElementException
+ *
+ *----------------------------------------------------------------*/
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+
+public class BatchSolver {
+    private static final ThreadLocal<Solver.Workspace> WORKER_SPACE = new ThreadLocal<Solver.Workspace>();
+
+    // solve one puzzle file and describe the result as a CSV row
+    private static class Job implements Callable<String> {
+        private final File file;
+        private final Heuristic heuristic;
+        private final long maxNodes, maxNanos;
+
+        private Job(File file, Heuristic heuristic, long maxNodes, long maxNanos) {
+            this.file      = file;
+            this.heuristic = heuristic;
+            this.maxNodes  = maxNodes;
+            this.maxNanos  = maxNanos;
+        }
+
+        public String call() {
+            long start = System.nanoTime();
+            try {
+                Board initial = read(file);
+                Solver solver = new Solver(initial, heuristic, maxNodes, maxNanos, workspace());
+                String status = solver.isSolvable() ? "solved" : solver.outOfBudget() ? "budget" : "unsolvable";
+                return row(status, solver.moves(), solver.expanded(), start, "");
+            }
+            catch (RuntimeException e) {           // a malformed file must not stop the batch
+                return row("error", -1, 0, start, e.toString().replace(",", ""));
+            }
+        }
+
+        private String row(String status, int moves, long expanded, long start, String error) {
+            double millis = (System.nanoTime() - start) / 1e6;
+            return file.getPath() + "," + status + "," + moves + "," + expanded + ","
+                 + String.format("%.1f", millis) + "," + error;
+        }
+    }
+
+    // the workspace of the calling thread
+    private static Solver.Workspace workspace() {
+        Solver.Workspace space = WORKER_SPACE.get();
+        if (space == null) {
+            space = new Solver.Workspace();
+            WORKER_SPACE.set(space);
+        }
+        return space;
+    }
+
+    // read a puzzle file in the format Solver.main reads
+    private static Board read(File file) {
+        In in = new In(file.getPath());
+        int N = in.readInt();
+        int[][] blocks = new int[N][N];
+        for (int i = 0; i < N; i++)
+            for (int j = 0; j < N; j++)
+                blocks[i][j] = in.readInt();
+        return new Board(blocks);
+    }
+
+    // the *.txt files of a directory, or the files named in a manifest
+    private static List<File> puzzles(File source) throws IOException {
+        List<File> files = new ArrayList<File>();
+        if (source.isDirectory()) {
+            File[] listed = source.listFiles();
+            if (listed == null) throw new IOException("cannot list " + source);
+            Arrays.sort(listed);
+            for (File f : listed) {
+                if (f.isFile() && f.getName().endsWith(".txt"))
+                    files.add(f);
+            }
+            return files;
+        }
+        File base = source.getAbsoluteFile().getParentFile();
+        for (String line : java.nio.file.Files.readAllLines(source.toPath(), java.nio.charset.StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            File f = new File(line);
+            files.add(f.isAbsolute() ? f : new File(base, line));
+        }
+        return files;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) throw new IllegalArgumentException("usage: BatchSolver dir|manifest [threads] [maxNodes] [seconds] [heuristic]");
+        int threads   = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long maxNodes = args.length > 2 ? Long.parseLong(args[2]) : Long.MAX_VALUE;
+        long maxNanos = args.length > 3 ? (long) (Double.parseDouble(args[3]) * 1e9) : Long.MAX_VALUE;
+        Heuristic heuristic = args.length > 4 ? Solver.heuristic(args[4]) : null;
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        CompletionService<String> done = new ExecutorCompletionService<String>(pool);
+        List<File> files = puzzles(new File(args[0]));
+        for (File f : files)
+            done.submit(new Job(f, heuristic, maxNodes, maxNanos));
+
+        StdOut.println("file,status,moves,expanded,millis,error");
+        try {
+            for (int k = 0; k < files.size(); k++)
+                StdOut.println(done.take().get());
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("batch job failed", e.getCause());
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac BidirectionalSolver.java
+ *  Execution:     java BidirectionalSolver puzzle.txt
+ *
+ *  Solves a slider puzzle by bidirectional breadth-first search, one
+ *  search from the initial board and one back from the goal. The side
+ *  with the smaller frontier expands one whole layer at a time. Once a
+ *  layer reaches a board the other side has seen, the layer is still
+ *  finished and the meeting board with the fewest total moves wins,
+ *  so the solution is a shortest one. Each side explores about half
+ *  the depth, about the square root of the boards one BFS would need.
+ *  Same API as Solver.
+ *
+ *----------------------------------------------------------------*/
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class BidirectionalSolver {
+    private final HashMap<Board, Board> forward = new HashMap<Board, Board>();   // board -> previous board from initial
+    private final HashMap<Board, Board> backward = new HashMap<Board, Board>();  // board -> next board toward goal
+    private Board meeting;                // board on a shortest path seen by both sides
+    private int moves = -1;
+
+    // find a solution to the initial board (using bidirectional BFS)
+    public BidirectionalSolver(Board initial) {
+        if (!initial.isSolvable())
+            return;
+        int N = initial.dimension();
+        int[][] blocks = new int[N][N];
+        for (int k = 0; k < N * N - 1; k++)
+            blocks[k / N][k % N] = k + 1;
+        Board goal = new Board(blocks);
+
+        ArrayList<Board> fromStart = new ArrayList<Board>();
+        ArrayList<Board> fromGoal = new ArrayList<Board>();
+        forward.put(initial, null);
+        backward.put(goal, null);
+        fromStart.add(initial);
+        fromGoal.add(goal);
+        if (initial.equals(goal)) {
+            meeting = initial;
+            moves = 0;
+            return;
+        }
+
+        int startDepth = 0, goalDepth = 0;   // depth of each side's frontier
+        Board[] next = new Board[4];
+        while (meeting == null) {
+            boolean expandStart = fromStart.size() <= fromGoal.size();
+            ArrayList<Board> frontier = expandStart ? fromStart : fromGoal;
+            HashMap<Board, Board> mine = expandStart ? forward : backward;
+            HashMap<Board, Board> other = expandStart ? backward : forward;
+            int depth = (expandStart ? startDepth : goalDepth) + 1;
+
+            ArrayList<Board> layer = new ArrayList<Board>();
+            for (Board board : frontier) {
+                int count = board.neighbors(next);
+                for (int k = 0; k < count; k++) {
+                    if (mine.containsKey(next[k]))
+                        continue;
+                    mine.put(next[k], board);
+                    layer.add(next[k]);
+                    if (other.containsKey(next[k])) {
+                        int total = depth + depth(other, next[k]);
+                        if (meeting == null || total < moves) {
+                            meeting = next[k];
+                            moves = total;
+                        }
+                    }
+                }
+            }
+            if (expandStart) {
+                fromStart = layer;
+                startDepth = depth;
+            }
+            else {
+                fromGoal = layer;
+                goalDepth = depth;
+            }
+        }
+    }
+
+    // moves from board back to the root of its side
+    private static int depth(HashMap<Board, Board> side, Board board) {
+        int d = 0;
+        for (Board b = side.get(board); b != null; b = side.get(b))
+            d++;
+        return d;
+    }
+
+    // is the initial board solvable?
+    public boolean isSolvable() {
+        return moves >= 0;
+    }
+
+    // min number of moves to solve initial board; -1 if no solution
+    public int moves() {
+        return moves;
+    }
+
+    // sequence of boards in a shortest solution; null if no solution
+    // (the initial board is left out, as in Solver)
+    public Iterable<Board> solution() {
+        if (moves < 0)
+            return null;
+        Stack<Board> toMeeting = new Stack<Board>();
+        for (Board b = meeting; forward.get(b) != null; b = forward.get(b))
+            toMeeting.push(b);
+        Queue<Board> q = new Queue<Board>();
+        for (Board b : toMeeting)
+            q.enqueue(b);
+        for (Board b = backward.get(meeting); b != null; b = backward.get(b))
+            q.enqueue(b);
+        return q;
+    }
+
+    // solve a slider puzzle (given below)
+    public static void main(String[] args) {
+        // create initial board from file
+        In in = new In(args[0]);
+        int N = in.readInt();
+        int[][] blocks = new int[N][N];
+        for (int i = 0; i < N; i++)
+            for (int j = 0; j < N; j++)
+                blocks[i][j] = in.readInt();
+        Board initial = new Board(blocks);
+
+        // solve the puzzle
+        BidirectionalSolver solver = new BidirectionalSolver(initial);
+
+        // print solution to standard output
+        if (!solver.isSolvable())
+            StdOut.println("No solution possible");
+        else {
+            StdOut.println("Minimum number of moves = " + solver.moves());
+            for (Board board : solver.solution())
+                StdOut.println(board);
+        }
+    }
+}
@@ -1,32 +1,126 @@
 /*----------------------------------------------------------------
  *  Author:        Raymond Zhang
  *  Written:       7/18/2014
- *  Last updated:  7/18/2014
- * 
+ *  Last updated:  10/18/2026
+ *
  *  An immutable data type Board
- * 
+ *
+ *  Boards up to 4-by-4 (the 8- and 15-puzzle) are packed into a
+ *  single long, 4 bits per square in row-major order, so a board is
+ *  one small object and a neighbor is made with a few bit operations.
+ *  Larger boards fall back to a row-major int array.
+ *
+ *  Each board also carries its Manhattan distance and the square of
+ *  the blank. A neighbor moves one block one step, so both are updated
+ *  in O(1) from the parent instead of rescanning every square.
+ *
+ *  The hash code is a Zobrist hash: the xor of one pseudo-random key
+ *  per (block, square) pair, so a swap updates it with four xors and
+ *  boards can be kept in a HashSet or HashMap cheaply.
+ *
  *----------------------------------------------------------------*/
 
 public class Board {
-    private final int[][] board;
+    private static final int MAX_PACKED = 4;   // largest dimension packed into a long
+
     private final int dim;
+    private final long packed;     // square k in bits 4k..4k+3, if dim <= MAX_PACKED
+    private final int[] tiles;     // row-major squares, only if dim > MAX_PACKED
+    private final int manhattan;   // sum of Manhattan distances to the goal
+    private final int blank;       // square of the zero
+    private final long hash;       // Zobrist hash of the blocks
 
     // construct a board from an N-by-N array of blocks
     // (where blocks[i][j] = block in row i, column j
     public Board(int[][] blocks) {
         dim = blocks.length;
-        board = copy(blocks);
-    }
- 
-    // copies and return a 2D array
-    private int[][] copy(int[][] copyThis) {
-        int size = copyThis.length;
-        int[][] newCopy = new int[size][size];
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++)
-                newCopy[i][j] = copyThis[i][j];
+        long bits = 0;
+        int[] squares = new int[dim * dim];
+        for (int i = 0; i < dim; i++) {
+            for (int j = 0; j < dim; j++)
+                squares[i * dim + j] = blocks[i][j];
+        }
+        if (dim <= MAX_PACKED) {
+            for (int k = 0; k < squares.length; k++)
+                bits |= (long) squares[k] << (4 * k);
+            squares = null;
+        }
+        packed = bits;
+        tiles = squares;
+
+        int dist = 0, zero = 0;
+        long h = 0;
+        for (int k = 0; k < dim * dim; k++) {
+            int value = tileAt(k);
+            if (value == 0)
+                zero = k;
+            dist += distance(value, k);
+            h ^= zobrist(value, k);
+        }
+        manhattan = dist;
+        blank = zero;
+        hash = h;
+    }
+
+    // board with the given representation, used for neighbors and twins
+    private Board(int dim, long packed, int[] tiles, int manhattan, int blank, long hash) {
+        this.dim = dim;
+        this.packed = packed;
+        this.tiles = tiles;
+        this.manhattan = manhattan;
+        this.blank = blank;
+        this.hash = hash;
+    }
+
+    // Zobrist key of block value on square k, 0 for the blank; the
+    // SplitMix64 finalizer stands in for a table of random keys, so
+    // boards of every size share it without setup
+    private static long zobrist(int value, int k) {
+        if (value == 0)
+            return 0;
+        long z = ((long) value << 32 | k) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Manhattan distance of block value on square k from its goal square
+    private int distance(int value, int k) {
+        if (value == 0)
+            return 0;
+        return Math.abs(k / dim - (value - 1) / dim) + Math.abs(k % dim - (value - 1) % dim);
+    }
+
+    // block on square k (row k / N, column k % N)
+    int tileAt(int k) {
+        if (tiles != null)
+            return tiles[k];
+        return (int) (packed >>> (4 * k)) & 0xF;
+    }
+
+    // copy the squares into out (length N*N) in row-major order
+    int[] copyTiles(int[] out) {
+        for (int k = 0; k < dim * dim; k++)
+            out[k] = tileAt(k);
+        return out;
+    }
+
+    // board with the blocks on squares a and b exchanged
+    private Board swap(int a, int b) {
+        int tileA = tileAt(a), tileB = tileAt(b);
+        int dist = manhattan - distance(tileA, a) - distance(tileB, b)
+                             + distance(tileA, b) + distance(tileB, a);
+        int zero = blank == a ? b : blank == b ? a : blank;
+        long h = hash ^ zobrist(tileA, a) ^ zobrist(tileB, b)
+                      ^ zobrist(tileA, b) ^ zobrist(tileB, a);
+        if (tiles != null) {
+            int[] copy = tiles.clone();
+            copy[a] = tileB;
+            copy[b] = tileA;
+            return new Board(dim, 0, copy, dist, zero, h);
         }
-        return newCopy;
+        long diff = (long) (tileA ^ tileB);
+        return new Board(dim, packed ^ (diff << (4 * a)) ^ (diff << (4 * b)), null, dist, zero, h);
     }
 
     // board dimension N
@@ -36,62 +130,67 @@ public class Board {
 
     // number of blocks out of place
     public int hamming() {
-        int count = 0;
         int outOfPlace = 0;
-        for (int i = 0; i < dim; i++) {
-            for (int j = 0; j < dim; j++) {
-                count++;
-                if (board[i][j] != count)
-                    outOfPlace++;
-            }
+        for (int k = 0; k < dim * dim - 1; k++) {
+            if (tileAt(k) != k + 1)
+                outOfPlace++;
         }
-        return outOfPlace - 1;
+        return outOfPlace;
     }
 
     // sum of Manhattan distances between blocks and goal
     public int manhattan() {
-        int value, row, col, dist = 0;
-        for (int i = 0; i < dim; i++) {
-            for (int j = 0; j < dim; j++) {
-                value = board[i][j];   // get the value of the square
-                if (value == 0)        // skip if it's a zero
-                    continue;
-                row = (value - 1) / dim;  // calculate the value's correct position
-                col = (value - 1) % dim;
-            dist += Math.abs(i - row) + Math.abs(j - col);  // add the distance
-            }
-        }
-        return dist;
+        return manhattan;
+    }
+
+    // square of the blank (row k / N, column k % N)
+    int blank() {
+        return blank;
     }
 
     // is this board the goal board?
     public boolean isGoal() {
-        return hamming() == 0;
+        return manhattan == 0;     // every block home leaves the blank last
+    }
+
+    // can the goal be reached from this board? Every move is one
+    // transposition with the blank, so the parity of the blocks'
+    // permutation (read row by row, skipping the blank) only changes on
+    // vertical moves, and only when N is even. Decided from that parity
+    // and the blank's row, counting cycles in O(N^2)
+    boolean isSolvable() {
+        int n = dim * dim - 1;
+        int[] order = new int[n];  // block on the j-th non-blank square, 0-based
+        for (int k = 0, j = 0; k <= n; k++) {
+            if (k != blank)
+                order[j++] = tileAt(k) - 1;
+        }
+        int cycles = 0;
+        for (int j = 0; j < n; j++) {
+            if (order[j] < 0)
+                continue;
+            cycles++;
+            for (int i = j; order[i] >= 0; ) {   // mark the cycle through j
+                int following = order[i];
+                order[i] = -1;
+                i = following;
+            }
+        }
+        int parity = (n - cycles) & 1;           // parity of the inversion count
+        if (dim % 2 == 1)
+            return parity == 0;
+        return (parity + (dim - 1 - blank / dim)) % 2 == 0;
     }
 
     // a board obtained by exchanging two adjacent blocks in the same row
     public Board twin() {
-        int[][] boardcopy = copy(board);
         if (dim <= 1)
-        return new Board(boardcopy);
+            return new Board(dim, packed, tiles == null ? null : tiles.clone(), manhattan, blank, hash);
 
-        // set a firstNum to every loop of the array and if it's not equal to
-        // zero
-        // then end loop else set secNum equal to it
-        int row = 0, col = 0, firstNum = 0, secNum = boardcopy[0][0];
-        for (int i = 0; i < dim; i++) {
-            for (int j = 0; j < dim; j++) {
-                row = i;
-                col = j;
-                firstNum = boardcopy[i][j];
-                if (firstNum != 0 && secNum != 0 && j > 0)
-                    break;
-                secNum = firstNum;
-            }
-        }
-        boardcopy[row][col] = secNum;
-        boardcopy[row][col - 1] = firstNum;
-        return new Board(boardcopy);
+        // swap the first two squares of the first row that are both
+        // non-zero (in any row with the blank, only one pair is blank)
+        int row = tileAt(0) != 0 && tileAt(1) != 0 ? 0 : 1;
+        return swap(row * dim, row * dim + 1);
     }
 
     // does this board equal y?
@@ -103,53 +202,45 @@ public class Board {
         if (y.getClass() != this.getClass())   // make sure it's the same class
             return false;
         Board aBoard = (Board) y;
-        if (aBoard.dimension() != dim)   // make sure it has same dimensions
+        if (aBoard.dimension() != dim || aBoard.hash != hash)   // same dimensions and hash
             return false;
-        for (int i = 0; i < dim; i++) {  // check each square matches
-            for (int j = 0; j < dim; j++) {
-                if (board[i][j] != aBoard.board[i][j])
-                    return false;
-            }
-        }
-        return true;
+        if (tiles == null)               // packed boards compare in one step
+            return packed == aBoard.packed;
+        return java.util.Arrays.equals(tiles, aBoard.tiles);
+    }
+
+    // Zobrist hash folded to an int, consistent with equals
+    public int hashCode() {
+        return (int) (hash ^ (hash >>> 32));
     }
 
     // all neighboring boards
     public Iterable<Board> neighbors() {
         Queue<Board> q = new Queue<Board>();
+        Board[] next = new Board[4];
+        int count = neighbors(next);
+        for (int k = 0; k < count; k++)
+            q.enqueue(next[k]);
+        return q;
+    }
 
-        // search for zero's row and column position
-        int zeroRow = 0, zeroCol = 0;
-        for (int i = 0; i < dim; i++) {
-            for (int j = 0; j < dim; j++) {
-                if (board[i][j] == 0) {
-                    zeroRow = i;
-                    zeroCol = j;
-                    break;
-                }
-            }
-        }
+    // store the neighboring boards in out (length 4 or more) and return
+    // how many there are; lets Solver expand a node without a Queue
+    int neighbors(Board[] out) {
+        int zero = blank;
+        int zeroRow = zero / dim, zeroCol = zero % dim;
 
         // test each condition of where zero could be then create a neighbor
-        // board and add onto queue
+        int count = 0;
         if (zeroRow > 0)
-            q.enqueue(new Board(swap(zeroRow, zeroCol, zeroRow - 1, zeroCol)));
+            out[count++] = swap(zero, zero - dim);
         if (zeroRow < dim - 1)
-            q.enqueue(new Board(swap(zeroRow, zeroCol, zeroRow + 1, zeroCol)));
+            out[count++] = swap(zero, zero + dim);
         if (zeroCol > 0)
-            q.enqueue(new Board(swap(zeroRow, zeroCol, zeroRow, zeroCol - 1)));
+            out[count++] = swap(zero, zero - 1);
         if (zeroCol < dim - 1)
-            q.enqueue(new Board(swap(zeroRow, zeroCol, zeroRow, zeroCol + 1)));
-        return q;
-    }
- 
-    // swap zero with a square to create a neighbor board
-    private int[][] swap(int zeroRow, int zeroCol, int newZeroRow, int newZeroCol) {
-        int[][] neighbor = copy(board);
-        int temp = neighbor[newZeroRow][newZeroCol];
-        neighbor[newZeroRow][newZeroCol] = 0;
-        neighbor[zeroRow][zeroCol] = temp;
-        return neighbor;
+            out[count++] = swap(zero, zero + 1);
+        return count;
     }
 
     // string representation of the board (in the output format specified below)
@@ -158,10 +249,10 @@ public class Board {
         s.append(dim + "\n");
         for (int i = 0; i < dim; i++) {
             for (int j = 0; j < dim; j++) {
-                s.append(String.format("%2d ", board[i][j]));
+                s.append(String.format("%2d ", tileAt(i * dim + j)));
             }
             s.append("\n");
         }
         return s.toString();
     }
-}
\ No newline at end of file
+}
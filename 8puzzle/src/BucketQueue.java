@@ -0,0 +1,101 @@
+/*----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Open list for A* with small integer priorities. An item is inserted
+ *  with its f (moves + estimate) and g (moves) and delMin() returns an
+ *  item of least f, breaking ties toward the largest g, which is the
+ *  node closest to a goal. Items with the same f and g come out last
+ *  in, first out.
+ *
+ *  There is one stack per (f, g) pair, g <= f, laid out in a triangle
+ *  so bucket (f, g) is f(f+1)/2 + g. The least f and the largest g of
+ *  each f are kept as cursors, so insert and delMin take O(1)
+ *  amortized time with no comparisons or boxing. clear() keeps every
+ *  array for the next search.
+ *
+ *----------------------------------------------------------------*/
+
+public class BucketQueue<Item> {
+    private Object[][] buckets = new Object[0][];  // stack of items of each (f, g)
+    private int[] counts = new int[0];             // items in each bucket
+    private int[] sizeOfF = new int[0];            // items of each f
+    private int[] maxG = new int[0];               // no bucket of f has g above maxG[f]
+    private int minF;                              // no item has f below minF
+    private int size;
+
+    // is the queue empty?
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // number of items in the queue
+    public int size() {
+        return size;
+    }
+
+    // add item with priority f and tie-breaker g (0 <= g <= f)
+    public void insert(Item item, int f, int g) {
+        if (g < 0 || g > f) throw new IllegalArgumentException("need 0 <= g <= f, got f = " + f + ", g = " + g);
+        if (f >= sizeOfF.length)
+            growTo(f);
+        int b = f * (f + 1) / 2 + g;
+        Object[] stack = buckets[b];
+        if (stack == null)
+            stack = buckets[b] = new Object[16];
+        else if (counts[b] == stack.length)
+            stack = buckets[b] = java.util.Arrays.copyOf(stack, 2 * stack.length);
+        stack[counts[b]++] = item;
+        if (sizeOfF[f]++ == 0 || g > maxG[f])
+            maxG[f] = g;
+        if (size++ == 0 || f < minF)
+            minF = f;
+    }
+
+    // least f of the items in the queue
+    public int minF() {
+        if (size == 0) throw new java.util.NoSuchElementException("Priority queue underflow");
+        while (sizeOfF[minF] == 0)
+            minF++;
+        return minF;
+    }
+
+    // remove and return an item of least f, and of largest g among those
+    @SuppressWarnings("unchecked")
+    public Item delMin() {
+        int f = minF();
+        int base = f * (f + 1) / 2;
+        while (counts[base + maxG[f]] == 0)
+            maxG[f]--;
+        int b = base + maxG[f];
+        Item item = (Item) buckets[b][--counts[b]];
+        buckets[b][counts[b]] = null;      // to avoid loitering
+        sizeOfF[f]--;
+        size--;
+        return item;
+    }
+
+    // remove every item, keeping the arrays
+    public void clear() {
+        for (int b = 0; b < counts.length; b++) {
+            if (counts[b] > 0)
+                java.util.Arrays.fill(buckets[b], 0, counts[b], null);
+        }
+        java.util.Arrays.fill(counts, 0);
+        java.util.Arrays.fill(sizeOfF, 0);
+        java.util.Arrays.fill(maxG, 0);
+        minF = 0;
+        size = 0;
+    }
+
+    // make room for priorities up to f
+    private void growTo(int f) {
+        int n = Math.max(f + 1, 2 * sizeOfF.length);
+        int triangle = n * (n + 1) / 2;
+        buckets = java.util.Arrays.copyOf(buckets, triangle);
+        counts  = java.util.Arrays.copyOf(counts, triangle);
+        sizeOfF = java.util.Arrays.copyOf(sizeOfF, n);
+        maxG    = java.util.Arrays.copyOf(maxG, n);
+    }
+}
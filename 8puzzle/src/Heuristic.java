@@ -0,0 +1,23 @@
+/*----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  An admissible estimate of the moves left to solve a board, for
+ *  Solver and IDASolver. The board is given as its N*N squares in
+ *  row-major order, 0 for the blank. An estimate must never exceed
+ *  the true number of moves, or the solvers lose their optimality.
+ *
+ *  The solvers call estimate() once per generated board, so it should
+ *  not allocate: the caller passes in the board's Manhattan distance,
+ *  which it keeps incrementally, and a scratch array it owns of at
+ *  least 2*N*N ints that the heuristic may overwrite. An implementation
+ *  keeps no other mutable state, so one instance can serve many threads.
+ *
+ *----------------------------------------------------------------*/
+
+public interface Heuristic {
+    // lower bound on the moves to solve the board with these squares
+    // and this Manhattan distance
+    int estimate(int[] tiles, int dim, int manhattan, int[] scratch);
+}
@@ -0,0 +1,172 @@
+/*----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac IDASolver.java
+ *  Execution:     java IDASolver puzzle.txt [manhattan | linear | pdb-file]
+ *
+ *  Solves a slider puzzle by iterative-deepening A* (IDA*): a series
+ *  of depth-first searches, each cut off where moves + estimate
+ *  (Manhattan distance, or any Heuristic) exceeds a bound, the bound
+ *  rising to the smallest value that was cut off last time. The search
+ *  works on one mutable array of squares, moving the blank and moving
+ *  it back, so memory grows only with the solution depth. Same API as
+ *  Solver.
+ *
+ *  % java IDASolver puzzle4x4-50.txt 15puzzle.pdb
+ *
+ *----------------------------------------------------------------*/
+
+public class IDASolver {
+    private static final int FOUND = -1;  // search() result when the goal is reached
+
+    private int dim;
+    private int[] tiles;                  // squares of the board being searched
+    private int[] scratch;                // work space for the heuristic
+    private int blank;                    // square of the zero
+    private int manhattan;                // Manhattan distance of tiles
+    private final Heuristic heuristic;    // null to use manhattan
+    private int[] path;                   // blank square after each move
+    private int moves = -1;               // moves in the solution, -1 if none
+    private Board initial;
+
+    // find a solution to the initial board (using the IDA* algorithm)
+    public IDASolver(Board initial) {
+        this(initial, null);
+    }
+
+    // find a solution bounding the search by the given admissible heuristic
+    public IDASolver(Board initial, Heuristic heuristic) {
+        this.initial = initial;
+        this.heuristic = heuristic;
+        if (!initial.isSolvable())
+            return;
+        dim = initial.dimension();
+        tiles = new int[dim * dim];
+        scratch = new int[2 * dim * dim];
+        for (int k = 0; k < tiles.length; k++)
+            tiles[k] = initial.tileAt(k);
+        blank = initial.blank();
+        manhattan = initial.manhattan();
+        path = new int[16];
+
+        int bound = estimate();
+        while (true) {
+            int next = search(0, bound, -1);
+            if (next == FOUND)
+                break;
+            bound = next;
+        }
+        tiles = null;
+        scratch = null;
+    }
+
+    // depth-first search from the current board reached in g moves;
+    // returns FOUND, or the least f over the bound that was cut off
+    private int search(int g, int bound, int from) {
+        int f = g + estimate();
+        if (f > bound)
+            return f;
+        if (manhattan == 0) {
+            moves = g;
+            return FOUND;
+        }
+        int min = Integer.MAX_VALUE;
+        int row = blank / dim, col = blank % dim;
+        for (int d = 0; d < 4; d++) {
+            int to;
+            if      (d == 0) to = row > 0       ? blank - dim : -1;
+            else if (d == 1) to = row < dim - 1 ? blank + dim : -1;
+            else if (d == 2) to = col > 0       ? blank - 1   : -1;
+            else             to = col < dim - 1 ? blank + 1   : -1;
+            if (to < 0 || to == from)     // off the board, or straight back
+                continue;
+
+            int at = blank;
+            move(to);
+            if (g == path.length)
+                path = java.util.Arrays.copyOf(path, 2 * path.length);
+            path[g] = to;
+            int t = search(g + 1, bound, at);
+            if (t == FOUND)
+                return FOUND;
+            move(at);                     // undo
+            if (t < min)
+                min = t;
+        }
+        return min;
+    }
+
+    // estimated moves left from the current board
+    private int estimate() {
+        if (heuristic == null)
+            return manhattan;
+        return heuristic.estimate(tiles, dim, manhattan, scratch);
+    }
+
+    // slide the block on square to into the blank, updating manhattan
+    private void move(int to) {
+        int value = tiles[to];
+        int goal = value - 1;
+        manhattan += Math.abs(blank / dim - goal / dim) + Math.abs(blank % dim - goal % dim)
+                   - Math.abs(to / dim - goal / dim)    - Math.abs(to % dim - goal % dim);
+        tiles[blank] = value;
+        tiles[to] = 0;
+        blank = to;
+    }
+
+    // is the initial board solvable?
+    public boolean isSolvable() {
+        return moves >= 0;
+    }
+
+    // min number of moves to solve initial board; -1 if no solution
+    public int moves() {
+        return moves;
+    }
+
+    // sequence of boards in a shortest solution; null if no solution
+    // (the initial board is left out, as in Solver)
+    public Iterable<Board> solution() {
+        if (moves < 0)
+            return null;
+        Queue<Board> q = new Queue<Board>();
+        Board[] next = new Board[4];
+        Board board = initial;
+        for (int m = 0; m < moves; m++) {
+            int count = board.neighbors(next);
+            for (int k = 0; k < count; k++) {
+                if (next[k].blank() == path[m])
+                    board = next[k];
+            }
+            q.enqueue(board);
+        }
+        return q;
+    }
+
+    // solve a slider puzzle (given below), optionally with a heuristic
+    public static void main(String[] args) throws java.io.IOException {
+        // create initial board from file
+        In in = new In(args[0]);
+        int N = in.readInt();
+        int[][] blocks = new int[N][N];
+        for (int i = 0; i < N; i++)
+            for (int j = 0; j < N; j++)
+                blocks[i][j] = in.readInt();
+        Board initial = new Board(blocks);
+
+        // solve the puzzle
+        Heuristic heuristic = args.length > 1 ? Solver.heuristic(args[1]) : null;
+        IDASolver solver = new IDASolver(initial, heuristic);
+
+        // print solution to standard output
+        if (!solver.isSolvable())
+            StdOut.println("No solution possible");
+        else {
+            StdOut.println("Minimum number of moves = " + solver.moves());
+            for (Board board : solver.solution())
+                StdOut.println(board);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Manhattan distance plus linear conflicts. Two blocks in their goal
+ *  row (or column) but in reverse order must get out of each other's
+ *  way, which takes two moves Manhattan does not count. For every row
+ *  and column it adds 2 for each block that has to leave the line so
+ *  the rest are in order (the line length minus the longest increasing
+ *  run of goal positions), which stays admissible.
+ *
+ *----------------------------------------------------------------*/
+
+public class LinearConflict implements Heuristic {
+
+    public int estimate(int[] tiles, int dim, int manhattan, int[] scratch) {
+        int dist = manhattan;
+        int line = 0;                    // scratch[line..]: goal positions of the blocks at home in a line
+        int best = dim;                  // scratch[best..]: longest increasing run ending at each
+        for (int i = 0; i < dim; i++) {
+            int rowCount = 0, colCount = 0;
+            for (int j = 0; j < dim; j++) {  // row i
+                int value = tiles[i * dim + j];
+                if (value != 0 && (value - 1) / dim == i)
+                    scratch[line + rowCount++] = (value - 1) % dim;
+            }
+            dist += 2 * (rowCount - longestRun(scratch, line, best, rowCount));
+            for (int j = 0; j < dim; j++) {  // column i
+                int value = tiles[j * dim + i];
+                if (value != 0 && (value - 1) % dim == i)
+                    scratch[line + colCount++] = (value - 1) / dim;
+            }
+            dist += 2 * (colCount - longestRun(scratch, line, best, colCount));
+        }
+        return dist;
+    }
+
+    // length of the longest increasing subsequence of the n entries of
+    // s from line, using the n entries from best as work space
+    private static int longestRun(int[] s, int line, int best, int n) {
+        int longest = 0;
+        for (int a = 0; a < n; a++) {
+            s[best + a] = 1;
+            for (int b = 0; b < a; b++) {
+                if (s[line + b] < s[line + a] && s[best + b] + 1 > s[best + a])
+                    s[best + a] = s[best + b] + 1;
+            }
+            if (s[best + a] > longest)
+                longest = s[best + a];
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,254 @@
+/*----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac ParallelSolver.java
+ *  Execution:     java ParallelSolver puzzle.txt [threads] [heuristic]
+ *
+ *  Solves a slider puzzle by hash-distributed A* (HDA*) on several
+ *  threads. Every board has one owner thread, picked by its hash
+ *  code; only the owner keeps the board's open and closed entries, so
+ *  the threads share no search structures. A thread expands nodes of
+ *  least priority from its own BucketQueue and sends every neighbor it
+ *  does not own to the owner's lock-free inbox.
+ *
+ *  The first goal found need not be optimal, so it only becomes the
+ *  incumbent, and threads keep expanding nodes whose priority is below
+ *  the incumbent's moves. The search ends when every thread is out of
+ *  such nodes and no message is in flight, tracked by one counter of
+ *  busy threads plus unread messages: a message is counted before it
+ *  is sent by a busy thread, and an idle thread that reads one turns
+ *  busy without changing the counter, so the counter reaches 0 only
+ *  when all work is done. With an admissible heuristic the incumbent
+ *  is then a shortest solution. Same API as Solver.
+ *
+ *----------------------------------------------------------------*/
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ParallelSolver {
+    private final Heuristic heuristic;              // null for the board's own Manhattan
+    private final Worker[] workers;
+    private final AtomicLong work = new AtomicLong();  // busy threads + unread messages
+    private final AtomicReference<Node> incumbent = new AtomicReference<Node>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    private volatile boolean stopped;
+    private long expanded;
+
+    // a board reached in some number of moves; immutable, so it can be
+    // handed to another thread through an inbox
+    private static class Node {
+        private final Board board;
+        private final int moves;
+        private final Node previous;
+
+        private Node(Board board, int moves, Node previous) {
+            this.board = board;
+            this.moves = moves;
+            this.previous = previous;
+        }
+    }
+
+    // find a solution to the initial board on one thread per processor
+    public ParallelSolver(Board initial) {
+        this(initial, null, Runtime.getRuntime().availableProcessors());
+    }
+
+    // find a solution on the given number of threads, ranking boards by
+    // an admissible heuristic (null for Manhattan) that is safe to share
+    public ParallelSolver(Board initial, Heuristic heuristic, int threads) {
+        if (threads <= 0) throw new IllegalArgumentException("threads cannot be less than 1");
+        this.heuristic = heuristic;
+        workers = new Worker[threads];
+        if (!initial.isSolvable())
+            return;
+        int squares = initial.dimension() * initial.dimension();
+        for (int t = 0; t < threads; t++)
+            workers[t] = new Worker(t, squares);
+        workers[owner(initial)].inbox.offer(new Node(initial, 0, null));
+        work.set(threads + 1);                      // every thread busy, one message
+
+        Thread[] running = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            running[t] = new Thread(workers[t], "ParallelSolver-" + t);
+            running[t].start();
+        }
+        try {
+            for (int t = 0; t < threads; t++)
+                running[t].join();
+        }
+        catch (InterruptedException e) {
+            stopped = true;
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while solving", e);
+        }
+        if (failure.get() != null)
+            throw new IllegalStateException("search thread failed", failure.get());
+        for (int t = 0; t < threads; t++)
+            expanded += workers[t].expanded;
+    }
+
+    // thread that owns board
+    private int owner(Board board) {
+        return (board.hashCode() & 0x7fffffff) % workers.length;
+    }
+
+    // moves of the best solution found so far, or MAX_VALUE
+    private int bound() {
+        Node best = incumbent.get();
+        return best == null ? Integer.MAX_VALUE : best.moves;
+    }
+
+    // the search state of one thread: open list and best moves of the
+    // boards it owns, and the inbox other threads send them to
+    private class Worker implements Runnable {
+        private final int id;
+        private final ConcurrentLinkedQueue<Node> inbox = new ConcurrentLinkedQueue<Node>();
+        private final BucketQueue<Node> open = new BucketQueue<Node>();
+        private final HashMap<Board, Node> best = new HashMap<Board, Node>();
+        private final Board[] next = new Board[4];
+        private final int[] tiles;
+        private final int[] scratch;              // work space for the heuristic
+        private long expanded;
+        private boolean busy = true;
+
+        private Worker(int id, int squares) {
+            this.id = id;
+            tiles = new int[squares];
+            scratch = new int[2 * squares];
+        }
+
+        public void run() {
+            try {
+                while (!stopped) {
+                    Node message;
+                    while ((message = inbox.poll()) != null) {
+                        if (busy)
+                            work.decrementAndGet();   // message read
+                        else
+                            busy = true;              // its count now stands for this thread
+                        receive(message);
+                    }
+                    if (!open.isEmpty() && open.minF() < bound()) {
+                        expand(open.delMin());
+                        continue;
+                    }
+                    if (busy) {
+                        busy = false;
+                        work.decrementAndGet();
+                    }
+                    if (work.get() == 0)
+                        return;
+                    Thread.yield();
+                }
+            }
+            catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+                stopped = true;
+            }
+        }
+
+        // keep node if it reaches its board in fewer moves than before
+        private void receive(Node node) {
+            Node known = best.get(node.board);
+            if (known != null && known.moves <= node.moves)
+                return;
+            best.put(node.board, node);
+            if (node.board.isGoal()) {
+                Node current = incumbent.get();
+                while ((current == null || node.moves < current.moves)
+                       && !incumbent.compareAndSet(current, node))
+                    current = incumbent.get();
+                return;
+            }
+            int f = node.moves + estimate(node.board);
+            if (f < bound())
+                open.insert(node, f, node.moves);
+        }
+
+        // generate the neighbors of node, keeping those this thread owns
+        private void expand(Node node) {
+            if (best.get(node.board) != node)       // reached in fewer moves since
+                return;
+            expanded++;
+            int count = node.board.neighbors(next);
+            for (int k = 0; k < count; k++) {
+                if (node.previous != null && next[k].equals(node.previous.board))
+                    continue;
+                Node child = new Node(next[k], node.moves + 1, node);
+                int to = owner(next[k]);
+                if (to == id)
+                    receive(child);
+                else {
+                    work.incrementAndGet();         // counted before it can be read
+                    workers[to].inbox.offer(child);
+                }
+            }
+        }
+
+        private int estimate(Board board) {
+            if (heuristic == null)
+                return board.manhattan();
+            return heuristic.estimate(board.copyTiles(tiles), board.dimension(), board.manhattan(), scratch);
+        }
+    }
+
+    // is the initial board solvable?
+    public boolean isSolvable() {
+        return incumbent.get() != null;
+    }
+
+    // min number of moves to solve initial board; -1 if no solution
+    public int moves() {
+        Node goal = incumbent.get();
+        return goal == null ? -1 : goal.moves;
+    }
+
+    // number of nodes the search expanded, over all threads
+    long expanded() {
+        return expanded;
+    }
+
+    // sequence of boards in a shortest solution; null if no solution
+    // (the initial board is left out, as in Solver)
+    public Iterable<Board> solution() {
+        Node goal = incumbent.get();
+        if (goal == null)
+            return null;
+        Stack<Board> iter = new Stack<Board>();
+        for (Node node = goal; node.previous != null; node = node.previous)
+            iter.push(node.board);
+        return iter;
+    }
+
+    // solve a slider puzzle (given below)
+    public static void main(String[] args) throws IOException {
+        // create initial board from file
+        In in = new In(args[0]);
+        int N = in.readInt();
+        int[][] blocks = new int[N][N];
+        for (int i = 0; i < N; i++)
+            for (int j = 0; j < N; j++)
+                blocks[i][j] = in.readInt();
+        Board initial = new Board(blocks);
+
+        // solve the puzzle
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Heuristic heuristic = args.length > 2 ? Solver.heuristic(args[2]) : null;
+        ParallelSolver solver = new ParallelSolver(initial, heuristic, threads);
+
+        // print solution to standard output
+        if (!solver.isSolvable())
+            StdOut.println("No solution possible");
+        else {
+            StdOut.println("Minimum number of moves = " + solver.moves());
+            for (Board board : solver.solution())
+                StdOut.println(board);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac PatternDatabase.java
+ *  Execution:     java PatternDatabase N file
+ *
+ *  Additive disjoint pattern databases. The blocks are split into
+ *  groups; for each group a table holds, for every placement of its
+ *  blocks, the fewest moves of those blocks (moves of other blocks
+ *  are free) that bring them home. Each move moves one block, so the
+ *  table entries of the groups add up to an admissible estimate.
+ *
+ *  A table is indexed by the squares of the group's blocks as digits
+ *  base N*N and built backwards from the goal, one cost level at a
+ *  time, over states (placement, square of the blank) kept in bit
+ *  sets. The standard partitions are 4-4 for the 8-puzzle and 6-6-3
+ *  for the 15-puzzle; the latter needs about 100 MB to build and 32 MB
+ *  to keep, so main saves the tables to a file once, and load() maps
+ *  that file into memory read-only instead of reading it in.
+ *
+ *  % java PatternDatabase 4 15puzzle.pdb
+ *  % java Solver puzzle4x4-50.txt 15puzzle.pdb
+ *
+ *----------------------------------------------------------------*/
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public class PatternDatabase implements Heuristic {
+    private static final int MAGIC = 0x50554442;   // "PUDB"
+    private static final int UNSET = 0xFF;         // table entry not reached yet
+
+    private final int dim;
+    private final int[][] groups;     // blocks of each group
+    private final int[] groupOf;      // group of each block, -1 for none
+    private final int[] digitOf;      // weight of each block's square in its group's index
+    private final ByteBuffer[] tables;
+
+    private PatternDatabase(int dim, int[][] groups, ByteBuffer[] tables) {
+        this.dim = dim;
+        this.groups = groups;
+        this.tables = tables;
+        int cells = dim * dim;
+        groupOf = new int[cells];
+        digitOf = new int[cells];
+        java.util.Arrays.fill(groupOf, -1);
+        for (int g = 0; g < groups.length; g++) {
+            int weight = 1;
+            for (int i = 0; i < groups[g].length; i++) {
+                int value = groups[g][i];
+                if (value <= 0 || value >= cells || groupOf[value] != -1)
+                    throw new IllegalArgumentException("groups must be disjoint sets of blocks 1 to " + (cells - 1));
+                groupOf[value] = g;
+                digitOf[value] = weight;
+                weight *= cells;
+            }
+        }
+    }
+
+    // build the standard partition for N = 3 (4-4) or N = 4 (6-6-3)
+    public static PatternDatabase standard(int dim) {
+        if (dim == 3)
+            return build(3, new int[][] { { 1, 2, 3, 4 }, { 5, 6, 7, 8 } });
+        if (dim == 4)
+            return build(4, new int[][] { { 1, 5, 6, 9, 10, 13 }, { 7, 8, 11, 12, 14, 15 }, { 2, 3, 4 } });
+        throw new IllegalArgumentException("no standard partition for N = " + dim);
+    }
+
+    // build the tables for the given groups of blocks
+    public static PatternDatabase build(int dim, int[][] groups) {
+        ByteBuffer[] tables = new ByteBuffer[groups.length];
+        for (int g = 0; g < groups.length; g++)
+            tables[g] = ByteBuffer.wrap(buildTable(dim, groups[g]));
+        return new PatternDatabase(dim, groups, tables);
+    }
+
+    // the table of one group, by levels of cost c: every state of cost c
+    // is expanded by flooding its blank over the free squares (cost 0),
+    // and each group block next to that region may slide in (cost 1)
+    private static byte[] buildTable(int dim, int[] group) {
+        int cells = dim * dim, k = group.length;
+        if (cells > 32 || Math.pow(cells, k + 1) > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("pattern of " + k + " blocks is too large for N = " + dim);
+        int[] weight = new int[k];
+        int placements = 1;
+        for (int i = 0; i < k; i++) {
+            weight[i] = placements;
+            placements *= cells;
+        }
+        int[] adjacent = new int[cells];        // bit mask of each square's neighbors
+        for (int q = 0; q < cells; q++) {
+            if (q / dim > 0)       adjacent[q] |= 1 << (q - dim);
+            if (q / dim < dim - 1) adjacent[q] |= 1 << (q + dim);
+            if (q % dim > 0)       adjacent[q] |= 1 << (q - 1);
+            if (q % dim < dim - 1) adjacent[q] |= 1 << (q + 1);
+        }
+
+        byte[] table = new byte[placements];
+        java.util.Arrays.fill(table, (byte) UNSET);
+        int words = (int) (((long) placements * cells + 63) >>> 6);
+        long[] seen    = new long[words];       // states given a cost
+        long[] current = new long[words];       // states of cost c to expand
+        long[] next    = new long[words];       // states of cost c + 1 found so far
+
+        int home = 0;
+        for (int i = 0; i < k; i++)
+            home += (group[i] - 1) * weight[i];
+        int start = home * cells + cells - 1;
+        current[start >>> 6] |= 1L << start;
+
+        int[] square = new int[k];
+        for (int cost = 0; ; cost++) {
+            boolean any = false;
+            for (int w = 0; w < words; w++) {
+                while (current[w] != 0) {
+                    int state = (w << 6) + Long.numberOfTrailingZeros(current[w]);
+                    current[w] &= current[w] - 1;
+                    if ((seen[state >>> 6] & (1L << state)) != 0)
+                        continue;
+                    any = true;
+                    int placement = state / cells;
+                    int occupied = 0;
+                    for (int i = 0, rest = placement; i < k; i++, rest /= cells) {
+                        square[i] = rest % cells;
+                        occupied |= 1 << square[i];
+                    }
+
+                    // flood the blank over the free squares
+                    int region = 1 << (state % cells), frontier = region;
+                    while (frontier != 0) {
+                        int q = Integer.numberOfTrailingZeros(frontier);
+                        frontier &= frontier - 1;
+                        int grow = adjacent[q] & ~occupied & ~region;
+                        region |= grow;
+                        frontier |= grow;
+                    }
+                    for (int r = region; r != 0; r &= r - 1) {
+                        int s = placement * cells + Integer.numberOfTrailingZeros(r);
+                        seen[s >>> 6] |= 1L << s;
+                    }
+                    if ((table[placement] & 0xFF) == UNSET)
+                        table[placement] = (byte) cost;
+
+                    // slide a group block into the blank's region
+                    for (int i = 0; i < k; i++) {
+                        for (int r = adjacent[square[i]] & region; r != 0; r &= r - 1) {
+                            int to = Integer.numberOfTrailingZeros(r);
+                            int s = (placement + (to - square[i]) * weight[i]) * cells + square[i];
+                            if ((seen[s >>> 6] & (1L << s)) == 0)
+                                next[s >>> 6] |= 1L << s;
+                        }
+                    }
+                }
+            }
+            if (!any)
+                return table;
+            long[] swap = current;
+            current = next;
+            next = swap;
+        }
+    }
+
+    // sum of the groups' table entries for the board with these squares
+    // (the table indexes are summed in scratch; manhattan is not needed)
+    public int estimate(int[] tiles, int dim, int manhattan, int[] scratch) {
+        if (dim != this.dim) throw new IllegalArgumentException("database is for N = " + this.dim);
+        java.util.Arrays.fill(scratch, 0, groups.length, 0);
+        for (int q = 0; q < tiles.length; q++) {
+            int g = groupOf[tiles[q]];
+            if (g >= 0)
+                scratch[g] += q * digitOf[tiles[q]];
+        }
+        int sum = 0;
+        for (int g = 0; g < tables.length; g++)
+            sum += tables[g].get(scratch[g]) & 0xFF;
+        return sum;
+    }
+
+    // board dimension N the tables are for
+    public int dimension() {
+        return dim;
+    }
+
+    // write the header and tables to file
+    public void save(File file) throws IOException {
+        int header = 12;
+        for (int g = 0; g < groups.length; g++)
+            header += 4 + 4 * groups[g].length;
+        ByteBuffer head = ByteBuffer.allocate(header);
+        head.putInt(MAGIC).putInt(dim).putInt(groups.length);
+        for (int g = 0; g < groups.length; g++) {
+            head.putInt(groups[g].length);
+            for (int i = 0; i < groups[g].length; i++)
+                head.putInt(groups[g][i]);
+        }
+        head.flip();
+        try (FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (head.hasRemaining())
+                out.write(head);
+            for (int g = 0; g < tables.length; g++) {
+                ByteBuffer table = tables[g].duplicate();
+                table.clear();
+                while (table.hasRemaining())
+                    out.write(table);
+            }
+        }
+    }
+
+    // map a file written by save() into memory, read-only
+    public static PatternDatabase load(File file) throws IOException {
+        try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            if (map.getInt() != MAGIC) throw new IOException(file + " is not a pattern database");
+            int dim = map.getInt();
+            int[][] groups = new int[map.getInt()][];
+            for (int g = 0; g < groups.length; g++) {
+                groups[g] = new int[map.getInt()];
+                for (int i = 0; i < groups[g].length; i++)
+                    groups[g][i] = map.getInt();
+            }
+            ByteBuffer[] tables = new ByteBuffer[groups.length];
+            for (int g = 0; g < groups.length; g++) {
+                int size = (int) Math.pow(dim * dim, groups[g].length);
+                if (map.remaining() < size) throw new IOException(file + " is truncated");
+                map.limit(map.position() + size);
+                tables[g] = map.slice();
+                map.position(map.limit());
+                map.limit(map.capacity());
+            }
+            return new PatternDatabase(dim, groups, tables);
+        }
+    }
+
+    // build the standard databases for N and save them to a file
+    public static void main(String[] args) throws IOException {
+        int N = Integer.parseInt(args[0]);
+        Stopwatch timer = new Stopwatch();
+        PatternDatabase pdb = standard(N);
+        pdb.save(new File(args[1]));
+        StdOut.println("Built in " + timer.elapsedTime() + " seconds");
+    }
+}
@@ -1,25 +1,60 @@
 /*----------------------------------------------------------------
  *  Author:        Raymond Zhang
  *  Written:       7/18/2014
- *  Last updated:  7/18/2014
+ *  Last updated:  10/18/2026
  * 
  *  An immutable data type Solver
  * 
+ *  Each A* search keeps a closed set of the boards it has already
+ *  expanded and the moves they were expanded with. The Manhattan
+ *  priority is consistent, so the first time a board is removed from
+ *  the queue it has its fewest moves and every board is expanded once.
+ *  Other heuristics (see Heuristic) need only be admissible: a board
+ *  reached again with fewer moves is expanded again.
+ * 
+ *  Solvability is decided up front from the parity of the blocks and
+ *  the row of the blank, so only solvable boards are searched.
+ * 
+ *  The open list is a BucketQueue by priority, taking the node with
+ *  the most moves among those of least priority.
+ * 
+ *  A search can be given a budget of expanded nodes and time, and a
+ *  Workspace whose open list and closed set are reused from one puzzle
+ *  to the next; BatchSolver runs a Workspace per worker thread.
+ * 
  *----------------------------------------------------------------*/
 
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+
 public class Solver {
     private SearchNode result;
+    private final Board[] next = new Board[4];   // neighbors of the node being expanded
+    private final Heuristic heuristic;           // null for the board's own Manhattan
+    private int[] tiles;                         // squares handed to the heuristic
+    private int[] scratch;                       // and its work space
+    private long expanded;                       // nodes expanded so far
+    private boolean outOfBudget;                 // gave up before finding the goal
+
+    // search structures one thread can reuse between puzzles
+    static class Workspace {
+        private final BucketQueue<SearchNode> open = new BucketQueue<SearchNode>();
+        private final HashMap<Board, Integer> closed = new HashMap<Board, Integer>();
+        private int[] tiles = new int[0];
+        private int[] scratch = new int[0];
+    }
 
     // SearchNode is a property of the A* search algorithm and has 4 properties:
     // a board, number of moves made so far to reach this board, the previous
     // search node, and a priority function (Hamming / Manhattan)
-    private static class SearchNode implements Comparable<SearchNode> {
+    private static class SearchNode {
         private final Board board;
         private final int moves;
         private final SearchNode previous;
         private final int priority;
 
-        private SearchNode(Board myBoard, SearchNode node) {
+        private SearchNode(Board myBoard, SearchNode node, int estimate) {
             board = myBoard;
             previous = node;
             if (previous == null) // initial search node has a null previous
@@ -27,55 +62,111 @@ public class Solver {
                 moves = 0;
             else
                 moves = previous.moves + 1;
-            // Manhattan priority function is the sum of the Manhattan distances
-            // and the number of moves made so far to get to the search node
-            priority = board.manhattan() + moves;
-        }
-
-        public int compareTo(SearchNode node) {
-            return priority - node.priority;
+            // priority function is the estimate (Manhattan distance by default)
+            // plus the number of moves made so far to get to the search node
+            priority = estimate + moves;
         }
     }
 
     // find a solution to the initial board (using the A* algorithm)
-    // returns null if twin board is solved
+    // result stays null if the board cannot be solved
     public Solver(Board initial) {
-        if (initial.isGoal())
-            result = new SearchNode(initial, null);
-        else
-            result = solve(initial, initial.twin());
+        this(initial, null);
+    }
+
+    // find a solution ranking boards by the given admissible heuristic
+    public Solver(Board initial, Heuristic heuristic) {
+        this(initial, heuristic, Long.MAX_VALUE, Long.MAX_VALUE, new Workspace());
+    }
+
+    // find a solution, giving up after maxNodes expansions or maxNanos
+    // nanoseconds, with the closed set and buffers of workspace
+    Solver(Board initial, Heuristic heuristic, long maxNodes, long maxNanos, Workspace workspace) {
+        this.heuristic = heuristic;
+        int squares = initial.dimension() * initial.dimension();
+        if (workspace.tiles.length != squares) {
+            workspace.tiles = new int[squares];
+            workspace.scratch = new int[2 * squares];
+        }
+        tiles = workspace.tiles;
+        scratch = workspace.scratch;
+        if (initial.isSolvable()) {
+            try {
+                result = solve(initial, workspace.open, workspace.closed, maxNodes, maxNanos);
+            }
+            finally {
+                workspace.open.clear();    // both keep their arrays for the next puzzle
+                workspace.closed.clear();
+            }
+        }
+        tiles = null;
+        scratch = null;
     }
 
-    private SearchNode step(MinPQ<SearchNode> pq) {
+    // estimated moves left from board
+    private int estimate(Board board) {
+        if (heuristic == null)
+            return board.manhattan();
+        return heuristic.estimate(board.copyTiles(tiles), board.dimension(), board.manhattan(), scratch);
+    }
+
+    // expand the node of least priority; returns null if it was already
+    // expanded with as few moves
+    private SearchNode step(BucketQueue<SearchNode> pq, HashMap<Board, Integer> closed) {
         SearchNode leastPriority = pq.delMin();
-        for (Board neighbor : leastPriority.board.neighbors()) {
-            if (leastPriority.previous == null || !neighbor.equals(leastPriority.previous.board))
-                pq.insert(new SearchNode(neighbor, leastPriority));
+        Integer closedMoves = closed.get(leastPriority.board);
+        if (closedMoves != null && closedMoves <= leastPriority.moves)
+            return null;
+        closed.put(leastPriority.board, leastPriority.moves);
+        expanded++;
+        int count = leastPriority.board.neighbors(next);
+        for (int k = 0; k < count; k++) {
+            Board neighbor = next[k];
+            closedMoves = closed.get(neighbor);
+            if (closedMoves == null || closedMoves > leastPriority.moves + 1)
+                insert(pq, new SearchNode(neighbor, leastPriority, estimate(neighbor)));
         }
         return leastPriority;
     }
 
-    private SearchNode solve(Board a, Board twin) {
+    private static void insert(BucketQueue<SearchNode> pq, SearchNode node) {
+        pq.insert(node, node.priority, node.moves);
+    }
+
+    private SearchNode solve(Board a, BucketQueue<SearchNode> pq, HashMap<Board, Integer> closed,
+                             long maxNodes, long maxNanos) {
         SearchNode last;
-        MinPQ<SearchNode> myPQ = new MinPQ<SearchNode>();
-        MinPQ<SearchNode> twinPQ = new MinPQ<SearchNode>();
-        myPQ.insert(new SearchNode(a, null));
-        twinPQ.insert(new SearchNode(twin, null));
-
-        while (true) {
-            last = step(myPQ);
-            if (last.board.isGoal())
-                return last;
-            if (step(twinPQ).board.isGoal())
+        insert(pq, new SearchNode(a, null, estimate(a)));
+        long start = System.nanoTime();
+
+        while (!pq.isEmpty()) {
+            if (expanded >= maxNodes
+                || (expanded & 1023) == 0 && System.nanoTime() - start > maxNanos) {
+                outOfBudget = true;
                 return null;
+            }
+            last = step(pq, closed);
+            if (last != null && last.board.isGoal())
+                return last;
         }
+        return null;
     }
 
-    // is the initial board solvable?
+    // is the initial board solvable? (false also if the budget ran out)
     public boolean isSolvable() {
         return result != null;
     }
 
+    // did the search give up on its node or time budget?
+    boolean outOfBudget() {
+        return outOfBudget;
+    }
+
+    // number of nodes the search expanded
+    long expanded() {
+        return expanded;
+    }
+
     // min number of moves to solve initial board; -1 if no solution
     public int moves() {
         if (result != null)
@@ -96,8 +187,18 @@ public class Solver {
         return iter;
     }
 
-    // solve a slider puzzle (given below)
-    public static void main(String[] args) {
+    // heuristic named on the command line: "manhattan", "linear" (linear
+    // conflict) or the file of a pattern database
+    static Heuristic heuristic(String name) throws IOException {
+        if (name.equals("manhattan"))
+            return null;
+        if (name.equals("linear"))
+            return new LinearConflict();
+        return PatternDatabase.load(new File(name));
+    }
+
+    // solve a slider puzzle (given below), optionally with a heuristic
+    public static void main(String[] args) throws IOException {
         // create initial board from file
         In in = new In(args[0]);
         int N = in.readInt();
@@ -108,7 +209,8 @@ public class Solver {
         Board initial = new Board(blocks);
 
         // solve the puzzle
-        Solver solver = new Solver(initial);
+        Heuristic heuristic = args.length > 1 ? heuristic(args[1]) : null;
+        Solver solver = new Solver(initial, heuristic);
 
         // print solution to standard output
         if (!solver.isSolvable())
@@ -0,0 +1,126 @@
+/**----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac HoshenKopelman.java
+ *  Execution:     none (library)
+ *
+ *  Decides whether an N-by-N grid percolates by Hoshen-Kopelman
+ *  cluster labeling: sites are scanned row by row, each open site
+ *  takes the label of its open left or upper neighbor, and labels
+ *  that meet are merged in a small union-find. Label 0 stands for
+ *  the top row, so the grid percolates when a bottom row site ends
+ *  up with label 0's root. Only two rows of labels are kept, and the
+ *  scan stops early at any row with no site connected to the top.
+ *  After each row its roots are renumbered 0, 1, 2, ... (0 still the
+ *  top), so at most N+2 labels are ever live and the union-find is
+ *  O(N), not O(N^2).
+ *
+ *  The open sites for a probe are given as a permutation rank and a
+ *  count k: site s is open if rank[s] < k, for the N*N sites (rank may
+ *  be longer). They are first packed into a bit grid, and each row is
+ *  scanned a word at a time: blocked sites are cleared in bulk and
+ *  only the set bits, the open sites, are visited one by one.
+ *
+ *----------------------------------------------------------------*/
+
+public class HoshenKopelman {
+    private static final int NONE = -1;  // label of a blocked site
+
+    private final int N;
+    private final long[] bits;           // bit s set if site s is open
+    private int[] prev;                  // labels of the previous row
+    private int[] cur;                   // labels of the row being scanned
+    private final int[] parent;          // union-find over labels
+    private final int[] renumber;        // new label of each root, or NONE
+    private int labels;                  // labels handed out so far
+
+    public HoshenKopelman(int n) {
+        if (n <= 0) throw new IllegalArgumentException("n cannot be less than 1");
+        N      = n;
+        bits   = new long[(n*n + 63) >>> 6];
+        prev   = new int[n];
+        cur    = new int[n];
+        parent   = new int[n + 2];       // up to (n+1)/2 labels from the row
+        renumber = new int[n + 2];       // above, (n+1)/2 new ones, and 0
+    }
+
+    // does the grid with sites of rank below k open percolate?
+    public boolean percolates(int[] rank, int k) {
+        java.util.Arrays.fill(bits, 0L);
+        for (int s = 0; s < N*N; s++) {
+            if (rank[s] < k)
+                bits[s >>> 6] |= 1L << s;
+        }
+
+        labels    = 1;
+        parent[0] = 0;                   // label 0 is the top row
+        java.util.Arrays.fill(prev, 0);  // row "above" the grid is all top
+        for (int i = 0; i < N; i++) {
+            boolean reachesTop = false;
+            java.util.Arrays.fill(cur, NONE);
+            int first = i*N, last = first + N - 1;  // sites of row i
+            for (int w = first >>> 6; w <= last >>> 6; w++) {
+                long word = bits[w];
+                if (w == first >>> 6) word &= -1L << first;               // drop sites before the row
+                if (w == last >>> 6)  word &= -1L >>> (63 - (last & 63));  // and after it
+                for (; word != 0; word &= word - 1) {                     // open sites only
+                    int j = (w << 6) + Long.numberOfTrailingZeros(word) - first;
+                    int left = j > 0 ? cur[j-1] : NONE;
+                    int up   = prev[j];
+                    int label;
+                    if (left == NONE && up == NONE) {
+                        label = labels;
+                        parent[labels++] = label;
+                    }
+                    else if (left == NONE) label = up;
+                    else if (up == NONE)   label = left;
+                    else                   label = union(left, up);
+                    cur[j] = label;
+                }
+            }
+            java.util.Arrays.fill(renumber, 0, labels, NONE);
+            renumber[0] = 0;             // 0 is the smallest label, so always its own root
+            int live = 1;
+            for (int j = 0; j < N; j++) {
+                if (cur[j] == NONE)
+                    continue;
+                int root = find(cur[j]);
+                if (renumber[root] == NONE)
+                    renumber[root] = live++;
+                cur[j] = renumber[root];
+                reachesTop |= cur[j] == 0;
+            }
+            for (int label = 0; label < live; label++)
+                parent[label] = label;
+            labels = live;
+            if (!reachesTop)             // any spanning path crosses this
+                return false;            // row through a top-connected site
+            int[] swap = prev;
+            prev = cur;
+            cur  = swap;
+        }
+        return true;                     // last row reached the top
+    }
+
+    // root label, halving the path on the way up
+    private int find(int p) {
+        while (p != parent[p]) {
+            parent[p] = parent[parent[p]];
+            p = parent[p];
+        }
+        return p;
+    }
+
+    // merge two labels, the smaller root survives so 0 stays the top
+    private int union(int p, int q) {
+        int rootP = find(p), rootQ = find(q);
+        if (rootP < rootQ) {
+            parent[rootQ] = rootP;
+            return rootP;
+        }
+        parent[rootP] = rootQ;
+        return rootQ;
+    }
+}
@@ -24,6 +24,7 @@ public class InteractivePercolationVisualizer {
         StdDraw.show(0);
         Percolation perc = new Percolation(N);
         PercolationVisualizer.draw(perc, N);
+        perc.setListener(new PercolationVisualizer.SiteDrawer(perc, N));
         StdDraw.show(0);
 
         while (true) {
@@ -47,9 +48,8 @@ public class InteractivePercolationVisualizer {
                     perc.open(i, j);
                 }
 
-                // draw N-by-N percolation system
+                // the listener has drawn whatever changed
                 StdDraw.show(0);
-                PercolationVisualizer.draw(perc, N);
             }
             StdDraw.show(20);
         }
@@ -0,0 +1,206 @@
+/**----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac LatticePercolation.java
+ *  Execution:     java LatticePercolation W H [D] T
+ *
+ *  Site percolation on a W-by-H rectangular lattice or a W-by-H-by-D
+ *  cubic lattice, percolating from the top row (layer) to the bottom
+ *  one. The lattice is stored with a border of padding on every side
+ *  so all sites have the same neighbor offsets, kept in one table:
+ *
+ *    - side padding (columns, and layers in 3D) is never open, so
+ *      the neighbor loop needs no bounds checks;
+ *    - the padding rows above and below are open from the start, each
+ *      padding cell its own component flagged TOP or BOTTOM, so a site
+ *      next to them picks up the flag through an ordinary union. They
+ *      are not joined to each other, which would let sites connected
+ *      to the bottom backwash into looking full.
+ *
+ *  Opening a site is then one loop over the offset table with no per
+ *  edge code paths. Connectivity is tracked like Percolation: one
+ *  PercolationUF plus TOP/BOTTOM flags on each component root.
+ *
+ *----------------------------------------------------------------*/
+
+public class LatticePercolation implements PercolationModel {
+    private static final byte TOP    = 1;  // component touches the top row
+    private static final byte BOTTOM = 2;  // component touches the bottom row
+
+    private final int W, H, D;             // lattice width, height (percolation axis), depth
+    private final int rowStride;           // padded width
+    private final int layerStride;         // padded width * padded height
+    private final int zPad;                // 1 if layers are padded (3D), else 0
+    private final int[] offsets;           // padded index offsets of the neighbors
+    private final PercolationUF uf;
+    private final byte[] status;           // TOP/BOTTOM flags, only valid at component roots
+    private final long[] siteOpen;         // bit p set if padded cell p is open
+    private boolean percolates;
+
+    // W-by-H rectangular lattice
+    public LatticePercolation(int width, int height) {
+        this(width, height, 1);
+    }
+
+    // W-by-H-by-D cubic lattice (a rectangle if depth is 1)
+    public LatticePercolation(int width, int height, int depth) {
+        if (width <= 0 || height <= 0 || depth <= 0) throw new IllegalArgumentException("dimensions cannot be less than 1");
+        W = width;
+        H = height;
+        D = depth;
+        zPad        = D > 1 ? 1 : 0;
+        rowStride   = W + 2;
+        layerStride = rowStride * (H + 2);
+        long cells  = (long) layerStride * (D + 2*zPad);
+        if (cells > Integer.MAX_VALUE) throw new IllegalArgumentException("lattice is too large");
+        if (D > 1) offsets = new int[] { -rowStride, rowStride, -1, 1, -layerStride, layerStride };
+        else       offsets = new int[] { -rowStride, rowStride, -1, 1 };
+        uf       = new PercolationUF((int) cells);
+        status   = new byte[(int) cells];
+        siteOpen = new long[(int) ((cells + 63) >>> 6)];
+        openPadding();
+    }
+
+    // open the top and bottom padding rows of every layer, flagging
+    // each cell TOP or BOTTOM
+    private void openPadding() {
+        for (int z = 0; z < D + 2*zPad; z++) {
+            for (int x = 0; x < rowStride; x++) {
+                int top    = z*layerStride + x;
+                int bottom = top + (H + 1) * rowStride;
+                siteOpen[top >>> 6]    |= 1L << top;
+                siteOpen[bottom >>> 6] |= 1L << bottom;
+                status[top]    = TOP;
+                status[bottom] = BOTTOM;
+            }
+        }
+    }
+
+    // block every site again, as if newly constructed
+    public void reset() {
+        uf.reset();
+        java.util.Arrays.fill(status, (byte) 0);
+        java.util.Arrays.fill(siteOpen, 0L);
+        percolates = false;
+        openPadding();
+    }
+
+    // open site (row i, column j) of a 2D lattice, 1-based like Percolation
+    public void open(int i, int j) {
+        open(i, j, 1);
+    }
+
+    // open site (row i, column j, layer k), all 1-based
+    public void open(int i, int j, int k) {
+        openCell(cell(i, j, k));
+    }
+
+    // open site by its index 0 to W*H*D-1 (column fastest, then row, then layer)
+    public void openSite(int site) {
+        openCell(cellOf(site));
+    }
+
+    // union a newly opened cell with every open neighbor in one pass
+    private void openCell(int p) {
+        if (openBit(p))
+            return;
+        siteOpen[p >>> 6] |= 1L << p;
+        int flags = 0;
+        for (int d = 0; d < offsets.length; d++) {
+            int q = p + offsets[d];
+            if (openBit(q)) {
+                flags |= status[uf.find(q)];
+                uf.union(p, q);
+            }
+        }
+        status[uf.find(p)] = (byte) flags;
+        if (flags == (TOP | BOTTOM))
+            percolates = true;
+    }
+
+    // checks if site (row i, column j) of a 2D lattice is open
+    public boolean isOpen(int i, int j) {
+        return isOpen(i, j, 1);
+    }
+
+    public boolean isOpen(int i, int j, int k) {
+        return openBit(cell(i, j, k));
+    }
+
+    // checks if site by its index is open
+    public boolean isOpenSite(int site) {
+        return openBit(cellOf(site));
+    }
+
+    // checks if site (row i, column j) of a 2D lattice is full
+    public boolean isFull(int i, int j) {
+        return isFull(i, j, 1);
+    }
+
+    public boolean isFull(int i, int j, int k) {
+        int p = cell(i, j, k);
+        return openBit(p) && (status[uf.find(p)] & TOP) != 0;
+    }
+
+    // checks if system percolates
+    public boolean percolates() {
+        return percolates;
+    }
+
+    // number of sites, W*H*D
+    public int sites() {
+        return W*H*D;
+    }
+
+    private boolean openBit(int p) {
+        return (siteOpen[p >>> 6] & (1L << p)) != 0;
+    }
+
+    // padded cell of 1-based (row i, column j, layer k)
+    private int cell(int i, int j, int k) {
+        if (i <= 0 || i > H) throw new IndexOutOfBoundsException("Row index i is out of bounds");
+        if (j <= 0 || j > W) throw new IndexOutOfBoundsException("Column index j is out of bounds");
+        if (k <= 0 || k > D) throw new IndexOutOfBoundsException("Layer index k is out of bounds");
+        return j + i*rowStride + (k - 1 + zPad)*layerStride;
+    }
+
+    // padded cell of an unpadded site index
+    private int cellOf(int site) {
+        if (site < 0 || site >= W*H*D) throw new IndexOutOfBoundsException("Site index is out of bounds");
+        int x = site % W;
+        int y = (site / W) % H;
+        int z = site / (W*H);
+        return (x + 1) + (y + 1)*rowStride + (z + zPad)*layerStride;
+    }
+
+    // estimate the percolation threshold of a W-by-H(-by-D) lattice over
+    // T trials, opening sites in shuffled order
+    public static void main(String[] args) {
+        int W = Integer.parseInt(args[0]);
+        int H = Integer.parseInt(args[1]);
+        int D = args.length > 3 ? Integer.parseInt(args[2]) : 1;
+        int T = Integer.parseInt(args[args.length - 1]);
+        LatticePercolation perc = new LatticePercolation(W, H, D);
+        int sites = perc.sites();
+        int[] order = new int[sites];
+        double[] threshold = new double[T];
+        for (int t = 0; t < T; t++) {
+            perc.reset();
+            for (int s = 0; s < sites; s++)
+                order[s] = s;
+            int opened = 0;
+            while (!perc.percolates()) {
+                int r = opened + StdRandom.uniform(sites - opened);
+                int site = order[r];
+                order[r] = order[opened];
+                order[opened] = site;
+                perc.openSite(site);
+                opened++;
+            }
+            threshold[t] = opened / (double) sites;
+        }
+        System.out.println("Mean: " + StdStats.mean(threshold) + "\nStddev: " + StdStats.stddev(threshold));
+    }
+}
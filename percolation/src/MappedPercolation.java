@@ -0,0 +1,288 @@
+/**----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac MappedPercolation.java
+ *  Execution:     java MappedPercolation N
+ *
+ *  Models a percolation system like Percolation, but keeps the open
+ *  bits and the union-find in a memory-mapped file instead of on the
+ *  Java heap, so grids of a billion or more sites fit on one machine
+ *  without GC pauses. The file is mapped in 1 GB chunks since a
+ *  single MappedByteBuffer is limited to 2 GB.
+ *
+ *  Per site the file holds an int parent and a byte of rank and
+ *  TOP/BOTTOM flags, plus one open bit. A parent of 0 means "root",
+ *  other values are parent+1, so a freshly created (sparse, zero
+ *  filled) file is already a valid all-blocked system and nothing
+ *  has to be initialized up front.
+ *
+ *----------------------------------------------------------------*/
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class MappedPercolation implements PercolationModel {
+    private static final int  CHUNK_BITS = 30;               // 1 GB per mapping
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+    private static final int  RANK       = 0x3F;             // low bits of meta byte
+    private static final int  TOP        = 0x40;             // component touches the top row
+    private static final int  BOTTOM     = 0x80;             // component touches the bottom row
+
+    private final int N;
+    private final int sites;
+    private final long parentBase;          // byte offsets of the three regions
+    private final long metaBase;
+    private final long openBase;
+    private final long length;
+    private final File file;
+    private final boolean deleteOnClose;
+    private RandomAccessFile raf;
+    private MappedByteBuffer[] chunks;
+    private boolean percolates;
+
+    // create N-by-N grid backed by a temporary file
+    public MappedPercolation(int n) {
+        this(n, createTempFile(), true);
+    }
+
+    // create N-by-N grid backed by the given file, which is overwritten
+    public MappedPercolation(int n, File file) {
+        this(n, file, false);
+    }
+
+    private MappedPercolation(int n, File file, boolean deleteOnClose) {
+        if (n <= 0) throw new IllegalArgumentException("n cannot be less than 1");
+        if ((long) n*n > Integer.MAX_VALUE) throw new IllegalArgumentException("n*n sites must fit in an int");
+        N          = n;
+        sites      = n*n;
+        parentBase = 0;
+        openBase   = (4L*sites + 7) & ~7L;  // longs must start on a multiple of 8
+        metaBase   = openBase + 8L*((sites + 63) >>> 6);
+        length     = metaBase + sites;
+        this.file  = file;
+        this.deleteOnClose = deleteOnClose;
+        try {
+            raf = new RandomAccessFile(file, "rw");
+            raf.setLength(0);               // drop any old contents, then extend
+            raf.setLength(length);          // with zeros (sparse where supported)
+            FileChannel channel = raf.getChannel();
+            chunks = new MappedByteBuffer[(int) ((length + CHUNK_MASK) >>> CHUNK_BITS)];
+            for (int c = 0; c < chunks.length; c++) {
+                long start = (long) c << CHUNK_BITS;
+                long size  = Math.min(CHUNK_MASK + 1, length - start);
+                chunks[c]  = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+                chunks[c].order(ByteOrder.nativeOrder());
+            }
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("cannot map " + file, e);
+        }
+    }
+
+    private static File createTempFile() {
+        try {
+            return File.createTempFile("percolation", ".bin");
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("cannot create temporary file", e);
+        }
+    }
+
+    // unmap (as far as Java allows) and close the backing file
+    public void close() {
+        chunks = null;
+        try {
+            raf.close();
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("cannot close " + file, e);
+        }
+        if (deleteOnClose)
+            file.delete();
+    }
+
+    // block every site again by zeroing the whole file
+    public void reset() {
+        for (MappedByteBuffer chunk : chunks) {
+            int limit = chunk.limit();
+            int k = 0;
+            for (; k + 8 <= limit; k += 8)
+                chunk.putLong(k, 0L);
+            for (; k < limit; k++)
+                chunk.put(k, (byte) 0);
+        }
+        percolates = false;
+    }
+
+    public void open(int i, int j) {     // open site (row i, column j) if it is not already
+        validateIndices(i, j);
+        openSite((i-1)*N+(j-1));
+    }
+
+    // open site by its row-major index 0 to N*N-1 if it is not already
+    public void openSite(int pos) {
+        validateSite(pos);
+        long word = getLong(openBase + 8L*(pos >>> 6));
+        if ((word & (1L << pos)) != 0)
+            return;
+        putLong(openBase + 8L*(pos >>> 6), word | (1L << pos));
+
+        int i = pos / N, j = pos % N;
+        int flags = 0;
+        if (i == 0)   flags |= TOP;
+        if (i == N-1) flags |= BOTTOM;
+        if (i > 0)    flags |= merge(pos, pos - N);   // above
+        if (i < N-1)  flags |= merge(pos, pos + N);   // below
+        if (j > 0)    flags |= merge(pos, pos - 1);   // left
+        if (j < N-1)  flags |= merge(pos, pos + 1);   // right
+        int root = find(pos);
+        setMeta(root, (meta(root) & RANK) | flags);
+        if (flags == (TOP | BOTTOM))
+            percolates = true;
+    }
+
+    // union pos with neighbor if it is open, returns the flags of the
+    // neighbor's component before the union
+    private int merge(int pos, int neighbor) {
+        if (!openBit(neighbor))
+            return 0;
+        int rootN = find(neighbor);
+        int flags = meta(rootN) & (TOP | BOTTOM);
+        int rootP = find(pos);
+        if (rootP == rootN)
+            return flags;
+        int rankP = meta(rootP) & RANK, rankN = meta(rootN) & RANK;
+        if (rankP < rankN)
+            setParent(rootP, rootN);
+        else {
+            setParent(rootN, rootP);
+            if (rankP == rankN)
+                setMeta(rootP, meta(rootP) + 1);
+        }
+        return flags;
+    }
+
+    // root of the component containing p, halving the path on the way up
+    private int find(int p) {
+        while (true) {
+            int q = parent(p);
+            if (q == p)
+                return p;
+            int r = parent(q);
+            if (r != q)
+                setParent(p, r);
+            p = r;
+        }
+    }
+
+    // checks if site by its row-major index is open
+    public boolean isOpenSite(int pos) {
+        validateSite(pos);
+        return openBit(pos);
+    }
+
+    // checks if site (row i, column j) open
+    public boolean isOpen(int i, int j) {
+        validateIndices(i, j);
+        return openBit((i-1)*N+(j-1));
+    }
+
+    // checks if site (row i, column j) full
+    public boolean isFull(int i, int j) {
+        validateIndices(i, j);
+        int pos = (i-1)*N+(j-1);
+        return openBit(pos) && (meta(find(pos)) & TOP) != 0;
+    }
+
+    // checks if system percolates
+    public boolean percolates() {
+        return percolates;
+    }
+
+    // number of sites, N*N
+    public int sites() {
+        return sites;
+    }
+
+    private boolean openBit(int pos) {
+        return (getLong(openBase + 8L*(pos >>> 6)) & (1L << pos)) != 0;
+    }
+
+    private int parent(int p) {
+        int stored = getInt(parentBase + 4L*p);
+        return stored == 0 ? p : stored - 1;
+    }
+
+    private void setParent(int p, int q) {
+        putInt(parentBase + 4L*p, q == p ? 0 : q + 1);
+    }
+
+    private int meta(int p) {
+        return getByte(metaBase + p) & 0xFF;
+    }
+
+    private void setMeta(int p, int value) {
+        putByte(metaBase + p, (byte) value);
+    }
+
+    // positioned access into the chunked mapping; ints sit at multiples
+    // of 4 and longs at multiples of 8, and a chunk is a multiple of 8
+    // bytes long, so neither ever straddles two chunks
+    private int getInt(long offset) {
+        return chunks[(int) (offset >>> CHUNK_BITS)].getInt((int) (offset & CHUNK_MASK));
+    }
+
+    private void putInt(long offset, int value) {
+        chunks[(int) (offset >>> CHUNK_BITS)].putInt((int) (offset & CHUNK_MASK), value);
+    }
+
+    private long getLong(long offset) {
+        return chunks[(int) (offset >>> CHUNK_BITS)].getLong((int) (offset & CHUNK_MASK));
+    }
+
+    private void putLong(long offset, long value) {
+        chunks[(int) (offset >>> CHUNK_BITS)].putLong((int) (offset & CHUNK_MASK), value);
+    }
+
+    private byte getByte(long offset) {
+        return chunks[(int) (offset >>> CHUNK_BITS)].get((int) (offset & CHUNK_MASK));
+    }
+
+    private void putByte(long offset, byte value) {
+        chunks[(int) (offset >>> CHUNK_BITS)].put((int) (offset & CHUNK_MASK), value);
+    }
+
+    // validating site index and throwing exception if out of bounds
+    private void validateSite(int pos) {
+        if (pos < 0 || pos >= sites) throw new IndexOutOfBoundsException("Site index is out of bounds");
+    }
+
+    // validating indices and throwing exception if out of bounds
+    private void validateIndices(int i, int j) {
+        if (i <= 0 || i > N) throw new IndexOutOfBoundsException("Row index i is out of bounds");
+        if (j <= 0 || j > N) throw new IndexOutOfBoundsException("Column index j is out of bounds");
+    }
+
+    // opens random sites of an N-by-N off-heap grid until it percolates
+    public static void main(String[] args) {
+        int N = Integer.parseInt(args[0]);
+        MappedPercolation perc = new MappedPercolation(N);
+        long opened = 0;
+        while (!perc.percolates()) {
+            int i = StdRandom.uniform(N)+1;
+            int j = StdRandom.uniform(N)+1;
+            if (!perc.isOpen(i, j)) {
+                perc.open(i, j);
+                opened++;
+            }
+        }
+        perc.close();
+        System.out.println("Percolates after " + opened + " of " + (long) N*N + " sites");
+    }
+}
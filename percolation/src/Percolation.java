@@ -1,204 +1,299 @@
 /***---------------------------------------------------------------
  *  Author:        Raymond Zhang
  *  Written:       6/25/2014
- *  Last updated:  6/25/2014
+ *  Last updated:  10/18/2026
  *
  *  Compilation:   javac Percolation.java
  *  Execution:     java Percolation
- *  
- *  Models a percolation system using the WeightedQuickUnionUF
- *  data structure.
- * 
+ *
+ *  Models a percolation system using a single PercolationUF
+ *  union-find. Instead of virtual top and bottom sites, each
+ *  component root carries flags recording whether the component
+ *  touches the top or bottom row, so there is no backwash and
+ *  percolates() is a plain flag check. reset() blocks every site
+ *  again without reallocating, so one instance can run many trials,
+ *  and reset(n) reuses the arrays for any grid that fits in them.
+ *  Open sites are kept as bits packed into a long[], 64 per word.
+ *  An optional PercolationListener receives only what changed on
+ *  each open: the site itself, the sites it made full, and the moment
+ *  the system first percolates.
+ *
  ***---------------------------------------------------------------*/
 
-public class Percolation {
-    private WeightedQuickUnionUF uf;
-    private WeightedQuickUnionUF uf2;
-    private boolean[] siteOpen;            // site open if true or closed if false
+public class Percolation implements PercolationModel {
+    private static final byte TOP    = 1;  // component touches the top row
+    private static final byte BOTTOM = 2;  // component touches the bottom row
+
+    private PercolationUF uf;
+    private byte[] status;                 // TOP/BOTTOM flags, only valid at component roots
+    private long[] siteOpen;               // bit p of the array is set if site p is open
     private int N;                         // N will hold the width of grid
-    private int top;                       // set our virtual top equal to zeroth node           
-    private int bottom;                    // top and bottom are our virtual top and bottom 
+    private int sites;                     // N*N, the arrays may be larger after reset(n)
+    private boolean percolates;            // set once a component touches top and bottom
+    private PercolationListener listener;  // null unless someone wants the change feed
+    private long[] siteFull;               // bit p set if site p is full, kept only for the listener
+    private int[] fillStack;               // work stack for marking newly full sites
+    private long[] fresh;                  // sites opened by the current bulk open
 
     public Percolation(int n) {            // create N-by-N grid, with all sites blocked
         if (n <= 0) throw new IllegalArgumentException("n cannot be less than 1");
+        if ((long) n*n > Integer.MAX_VALUE) throw new IllegalArgumentException("n*n sites must fit in an int");
         N        = n;
-        top      = n*n;
-        bottom   = n*n+1;                   // set virtual bottom equal to last node
-        uf       = new WeightedQuickUnionUF(n*n+2); // create additional 2 sites for top and bottom
-        uf2      = new WeightedQuickUnionUF(n*n+2);
-        siteOpen = new boolean[n*n];
-        for (int i = 0; i < n*n; i++)       // initialize all sites blocked
-            siteOpen[i] = false;
+        sites    = n*n;
+        uf       = new PercolationUF(n*n);
+        status   = new byte[n*n];
+        siteOpen = new long[(n*n + 63) >>> 6];  // all bits start clear, i.e. blocked
+    }
+
+    // block every site again, as if newly constructed
+    public void reset() {
+        reset(N);
+    }
+
+    // block every site and make this an n-by-n grid, reusing the
+    // arrays if n*n sites fit in them
+    public void reset(int n) {
+        if (n <= 0) throw new IllegalArgumentException("n cannot be less than 1");
+        if ((long) n*n > Integer.MAX_VALUE) throw new IllegalArgumentException("n*n sites must fit in an int");
+        int words = (n*n + 63) >>> 6;
+        if (n*n > status.length) {
+            uf       = new PercolationUF(n*n);
+            status   = new byte[n*n];
+            siteOpen = new long[words];
+            fresh    = null;
+            if (listener != null) {
+                siteFull  = new long[words];
+                fillStack = new int[n*n];
+            }
+        }
+        else {
+            uf.reset(n*n);
+            java.util.Arrays.fill(status, 0, n*n, (byte) 0);
+            java.util.Arrays.fill(siteOpen, 0, words, 0L);
+            if (siteFull != null)
+                java.util.Arrays.fill(siteFull, 0, words, 0L);
+        }
+        N          = n;
+        sites      = n*n;
+        percolates = false;
+    }
+
+    // register a listener for changes, or null to remove it; sites that
+    // are already full are recorded but not reported
+    public void setListener(PercolationListener l) {
+        listener = l;
+        if (l == null) {
+            siteFull  = null;
+            fillStack = null;
+            return;
+        }
+        siteFull  = new long[siteOpen.length];
+        fillStack = new int[status.length];
+        for (int pos = 0; pos < sites; pos++) {
+            if (openBit(pos) && (status[uf.find(pos)] & TOP) != 0)
+                siteFull[pos >>> 6] |= 1L << pos;
+        }
     }
 
     public void open(int i, int j) {     // open site (row i, column j) if it is not already
         validateIndices(i, j);
         int pos = getPos(i, j);           // set converted 2D site to local var
-        if (!isOpen(i, j)) {
-            siteOpen[pos] = true;          // if the site is not open then set it open
-            if (N == 1 || N == 2) {
-                specialUnion(i, j, pos);
+        if (PercolationMetrics.ENABLED)
+            countOpen(pos);
+        if (!openBit(pos)) {
+            setOpen(pos);                  // if the site is not open then set it open
+            connect(i, j, pos);
+        }
+    }
+
+    // open sites (rows[k], cols[k]) for every k; all open bits are set
+    // first, then the new sites are connected in one row-major sweep
+    public void open(int[] rows, int[] cols) {
+        if (rows.length != cols.length) throw new IllegalArgumentException("rows and cols must have the same length");
+        for (int k = 0; k < rows.length; k++)
+            validateIndices(rows[k], cols[k]);
+        if (listener != null) {            // the feed is defined per open
+            for (int k = 0; k < rows.length; k++)
+                open(rows[k], cols[k]);
+            return;
+        }
+
+        if (fresh == null)
+            fresh = new long[siteOpen.length];
+        for (int k = 0; k < rows.length; k++) {
+            int pos = getPos(rows[k], cols[k]);
+            if (PercolationMetrics.ENABLED)
+                countOpen(pos);
+            if (!openBit(pos)) {
+                setOpen(pos);
+                fresh[pos >>> 6] |= 1L << pos;
             }
-            else
-            {
-                if (i == 1)
-                    unionTop(i, j, pos);
-                if (i == N)
-                    unionBot(i, j, pos);
-                if (j == 1 && i > 1 && i < N)
-                    unionLeft(i, j, pos);
-                if (j == N && i > 1 && i < N)
-                    unionRight(i, j, pos);
-                if (i > 1 && i < N && j > 1 && j < N)
-                    unionAll(i, j, pos);
+        }
+
+        // sites above and to the left were settled earlier in the sweep,
+        // so only join right and below when those sites were open before
+        for (int w = 0; w < fresh.length; w++) {
+            long word = fresh[w];
+            while (word != 0) {
+                int pos = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                int i = pos / N, j = pos % N;
+                int flags = 0;
+                if (i == 0)   flags |= TOP;
+                if (i == N-1) flags |= BOTTOM;
+                if (i > 0)    flags |= merge(pos, pos - N);
+                if (j > 0)    flags |= merge(pos, pos - 1);
+                if (j < N-1 && !isFresh(pos + 1)) flags |= merge(pos, pos + 1);
+                if (i < N-1 && !isFresh(pos + N)) flags |= merge(pos, pos + N);
+                status[uf.find(pos)] = (byte) flags;
+                if (flags == (TOP | BOTTOM))
+                    percolates = true;
             }
+            fresh[w] = 0;
+        }
+    }
+
+    // was site pos opened by the bulk open in progress? (only valid for
+    // sites not before the current word, earlier words are cleared)
+    private boolean isFresh(int pos) {
+        return (fresh[pos >>> 6] & (1L << pos)) != 0;
+    }
+
+    // open site by its row-major index 0 to N*N-1 if it is not already
+    public void openSite(int pos) {
+        validateSite(pos);
+        if (PercolationMetrics.ENABLED)
+            countOpen(pos);
+        if (!openBit(pos)) {
+            setOpen(pos);
+            connect(pos / N + 1, pos % N + 1, pos);
+        }
+    }
+
+    // record an open request, noting whether the site was already open
+    private void countOpen(int pos) {
+        PercolationMetrics.add(PercolationMetrics.OPENS, 1);
+        if (openBit(pos))
+            PercolationMetrics.add(PercolationMetrics.REDUNDANT_OPENS, 1);
+    }
+
+    // union a newly opened site with its open neighbors and record
+    // which edges the merged component now touches
+    private void connect(int i, int j, int pos) {
+        boolean percolatedBefore = percolates;
+        int flags = 0;
+        if (i == 1) flags |= TOP;
+        if (i == N) flags |= BOTTOM;
+        if (i > 1)  flags |= merge(pos, pos - N);   // above
+        if (i < N)  flags |= merge(pos, pos + N);   // below
+        if (j > 1)  flags |= merge(pos, pos - 1);   // left
+        if (j < N)  flags |= merge(pos, pos + 1);   // right
+        status[uf.find(pos)] = (byte) flags;
+        if (flags == (TOP | BOTTOM))
+            percolates = true;
+
+        if (listener != null) {
+            listener.siteOpened(i, j);
+            if ((flags & TOP) != 0)
+                fill(pos);
+            if (percolates && !percolatedBefore)
+                listener.percolated(i, j);
+        }
+    }
+
+    // mark the newly opened site pos and every open site reachable from
+    // it that is not yet full as full, reporting each one; every site is
+    // marked at most once, so this is amortized constant time per open
+    private void fill(int pos) {
+        int size = 0;
+        siteFull[pos >>> 6] |= 1L << pos;
+        fillStack[size++] = pos;
+        while (size > 0) {
+            int p = fillStack[--size];
+            int i = p / N, j = p % N;
+            listener.siteFull(i + 1, j + 1);
+            if (i > 0)   size = pushFull(p - N, size);
+            if (i < N-1) size = pushFull(p + N, size);
+            if (j > 0)   size = pushFull(p - 1, size);
+            if (j < N-1) size = pushFull(p + 1, size);
         }
     }
 
+    // push p onto the fill stack if it is open and not yet full
+    private int pushFull(int p, int size) {
+        if (openBit(p) && (siteFull[p >>> 6] & (1L << p)) == 0) {
+            siteFull[p >>> 6] |= 1L << p;
+            fillStack[size++] = p;
+        }
+        return size;
+    }
+
+    // union pos with neighbor if it is open, returns the flags of the
+    // neighbor's component before the union
+    private int merge(int pos, int neighbor) {
+        if (!openBit(neighbor))
+            return 0;
+        int flags = status[uf.find(neighbor)];
+        uf.union(pos, neighbor);
+        return flags;
+    }
+
+    // checks if site by its row-major index is open
+    public boolean isOpenSite(int pos) {
+        validateSite(pos);
+        return openBit(pos);
+    }
+
+    // number of sites, N*N
+    public int sites() {
+        return sites;
+    }
+
     // checks if site (row i, column j) open
     public boolean isOpen(int i, int j) {
         validateIndices(i, j);
-        return siteOpen[getPos(i, j)];
+        return openBit(getPos(i, j));
     }
 
     // checks if site (row i, column j) full
     public boolean isFull(int i, int j) {
         validateIndices(i, j);
-        return isOpen(i, j) && uf2.connected(getPos(i, j), top);
+        int pos = getPos(i, j);
+        return openBit(pos) && (status[uf.find(pos)] & TOP) != 0;
     }
 
     // checks if system percolates
     public boolean percolates() {
-        return uf.connected(top, bottom);
+        return percolates;
+    }
+
+    // is the bit for site pos set? (shift counts are taken mod 64)
+    private boolean openBit(int pos) {
+        return (siteOpen[pos >>> 6] & (1L << pos)) != 0;
+    }
+
+    // set the bit for site pos
+    private void setOpen(int pos) {
+        siteOpen[pos >>> 6] |= 1L << pos;
     }
 
     // convert 2D coordinates to 1D coordinates
     private int getPos(int i, int j) {
-        validateIndices(i, j);
         return (i-1)*N+(j-1);
     }
 
+    // validating site index and throwing exception if out of bounds
+    private void validateSite(int pos) {
+        if (PercolationMetrics.ENABLED)
+            PercolationMetrics.add(PercolationMetrics.VALIDATIONS, 1);
+        if (pos < 0 || pos >= sites) throw new IndexOutOfBoundsException("Site index is out of bounds");
+    }
+
     // validating indices and throwing exception if out of bounds
     private void validateIndices(int i, int j) {
+        if (PercolationMetrics.ENABLED)
+            PercolationMetrics.add(PercolationMetrics.VALIDATIONS, 1);
         if (i <= 0 || i > N) throw new IndexOutOfBoundsException("Row index i is out of bounds");
         if (j <= 0 || j > N) throw new IndexOutOfBoundsException("Column index j is out of bounds");
     }
-   
-    // union with neighboring sites on bottom
-    private void unionBot(int i, int j, int pos) {
-        uf.union(pos, bottom);               // union with virtual bottom
-        if (isOpen(i-1, j)) {
-            uf.union(pos, getPos(i-1, j));    // union above node if open
-            uf2.union(pos, getPos(i-1, j));
-        }
-        if (j > 1) {
-            if (isOpen(i, j-1)) {
-                uf.union(pos, getPos(i, j-1)); // union left node if open
-                uf2.union(pos, getPos(i, j-1));
-            }
-        }
-        if (j < N) {
-            if (isOpen(i, j+1)) {
-                uf.union(pos, getPos(i, j+1)); // union right node if open
-                uf2.union(pos, getPos(i, j+1));
-            }
-        }
-    }
-   
-    // union with neighboring sites on bottom
-    private void unionTop(int i, int j, int pos) {
-        uf.union(pos, top);                   // union with virtual top
-        uf2.union(pos, top);
-        if (isOpen(i+1, j)) {
-            uf.union(pos, getPos(i+1, j));    // union below node if open
-            uf2.union(pos, getPos(i+1, j));
-        }
-        if (j > 1) {
-            if (isOpen(i, j-1)) {
-                uf.union(pos, getPos(i, j-1)); // union left node if open
-                uf2.union(pos, getPos(i, j-1));
-            }
-        }
-        if (j < N) {
-            if (isOpen(i, j+1)) {
-                uf.union(pos, getPos(i, j+1)); // union right node if open
-                uf2.union(pos, getPos(i, j+1));
-            }
-        }
-    }
-   
-    // union with neighboring sites on left column
-    private void unionLeft(int i, int j, int pos) {
-        uf.union(pos, getPos(i, j+1));     // union right node
-        uf2.union(pos, getPos(i, j+1));
-        if (isOpen(i+1, j)) {
-            uf.union(pos, getPos(i+1, j));  // union below node if open
-            uf2.union(pos, getPos(i+1, j));
-        }
-        if (isOpen(i-1, j)) {
-            uf.union(pos, getPos(i-1, j));  // union above node if open
-            uf2.union(pos, getPos(i-1, j));
-        }
-    }
-   
-    // union with neighboring sites on right column
-    private void unionRight(int i, int j, int pos) {
-        uf.union(pos, getPos(i, j-1));      // union left node
-        uf2.union(pos, getPos(i, j-1));
-        if (isOpen(i+1, j)) {
-            uf.union(pos, getPos(i+1, j));   // union below node if open
-            uf2.union(pos, getPos(i+1, j));
-        }
-        if (isOpen(i-1, j)) {
-            uf.union(pos, getPos(i-1, j));   // union above node if open
-            uf2.union(pos, getPos(i-1, j));
-        }
-    }
-   
-    // union with all 4 neighboring sites
-    private void unionAll(int i, int j, int pos) {
-        if (isOpen(i-1, j)) {
-            uf.union(pos, getPos(i-1, j));   // union above node if open
-            uf2.union(pos, getPos(i-1, j));
-        }
-        if (isOpen(i+1, j)) {
-            uf.union(pos, getPos(i+1, j));   // union below node if open
-            uf2.union(pos, getPos(i+1, j));
-        }
-        if (isOpen(i, j+1)) {
-            uf.union(pos, getPos(i, j+1));   // union right node if open
-            uf2.union(pos, getPos(i, j+1));
-        }
-        if (isOpen(i, j-1)) {
-            uf.union(pos, getPos(i, j-1));   // union left node if open
-            uf2.union(pos, getPos(i, j-1));
-        }
-    }
-    
-    // special case N = 1, N = 1 union with neighboring sites
-    private void specialUnion(int i, int j, int pos) {
-        if (N == 1) {                // if N=1 then union the only node with
-            uf.union(pos, top);      // virtual top and bottom
-            uf.union(pos, bottom);
-            uf2.union(pos, top);
-        }
-        if (N == 2) {
-            if (i == 1) {            // if first row then union with virtual
-                uf.union(pos, top);  // top and the node below if open
-                uf2.union(pos, top);
-                if (isOpen(i+1, j)) {
-                    uf.union(pos, getPos(i+1, j));
-                    uf2.union(pos, getPos(i+1, j));
-                }
-            }
-            if (i == 2) {               // if second row then union with virtual
-                uf.union(pos, bottom); // bottom and node above it if open
-                uf2.union(pos, bottom);
-                if (isOpen(i-1, j)) {
-                    uf.union(pos, getPos(i-1, j));
-                    uf2.union(pos, getPos(i-1, j));
-                }
-            }
-        }
-    }
-}
\ No newline at end of file
+}
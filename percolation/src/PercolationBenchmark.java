@@ -0,0 +1,190 @@
+/**----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac PercolationBenchmark.java
+ *  Execution:     java PercolationBenchmark [minN] [maxN] [benchmark ...]
+ *
+ *  Micro benchmarks for the percolation module, run the same way
+ *  every time so performance changes can be checked for regressions.
+ *  For every N (powers of two from minN to maxN, default 16 to 8192)
+ *  and open order it measures
+ *
+ *    open         open every site of a reset grid
+ *    isFull       query every site of a 60% open grid
+ *    percolates   open in order, polling percolates() after each
+ *                 open until it is true (the trial inner loop)
+ *    stats        whole PercolationStats trials, one row per Mode
+ *
+ *  Open orders are RANDOM (shuffled), ROW_MAJOR (top to bottom) and
+ *  ADVERSARIAL (all even rows, then odd rows bottom up, so every late
+ *  open merges two large components). Each benchmark is warmed up for
+ *  at least WARMUP_SECONDS, then timed in SAMPLES samples of at least
+ *  SAMPLE_SECONDS each, so small N is not measured in the interpreter.
+ *  It prints operations per second over all samples, their spread
+ *  (standard deviation of the samples' rates, as a percentage of their
+ *  mean) and the allocation rate of the benchmark thread.
+ *
+ *----------------------------------------------------------------*/
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+public class PercolationBenchmark {
+    private static final double WARMUP_SECONDS = 1.0;  // untimed runs
+    private static final int SAMPLES           = 5;    // timed samples
+    private static final double SAMPLE_SECONDS = 0.2;  // runs per sample
+    private static final double FILL    = 0.6;    // fraction open for queries
+    private static final long SEED      = 20140625L;
+
+    private static long sink;                     // keeps results alive
+
+    // orders in which sites are opened
+    private enum Pattern {
+        RANDOM, ROW_MAJOR, ADVERSARIAL;
+
+        int[] order(int N) {
+            int[] order = new int[N*N];
+            int k = 0;
+            if (this == ADVERSARIAL) {
+                for (int i = 0; i < N; i += 2)
+                    for (int j = 0; j < N; j++)
+                        order[k++] = i*N + j;
+                for (int i = N % 2 == 0 ? N-1 : N-2; i >= 1; i -= 2)
+                    for (int j = 0; j < N; j++)
+                        order[k++] = i*N + j;
+                return order;
+            }
+            for (int s = 0; s < order.length; s++)
+                order[s] = s;
+            if (this == RANDOM) {
+                SplitRandom rng = new SplitRandom(SEED);
+                for (int m = order.length - 1; m > 0; m--) {
+                    int r = rng.uniform(m + 1);
+                    int site = order[r];
+                    order[r] = order[m];
+                    order[m] = site;
+                }
+            }
+            return order;
+        }
+    }
+
+    // one benchmark body; run() returns the number of operations done
+    private abstract static class Workload {
+        abstract long run();
+    }
+
+    public static void main(String[] args) {
+        int minN = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int maxN = args.length > 1 ? Integer.parseInt(args[1]) : 8192;
+        java.util.Set<String> only = new java.util.HashSet<String>();
+        for (int a = 2; a < args.length; a++)
+            only.add(args[a]);
+
+        System.out.printf("%-10s %-24s %6s %16s %8s %14s%n", "benchmark", "variant", "N", "ops/s", "+/- %", "alloc MB/s");
+        for (int N = minN; N <= maxN; N *= 2) {
+            for (Pattern pattern : Pattern.values()) {
+                final int[] order = pattern.order(N);
+                final Percolation perc = new Percolation(N);
+                if (only.isEmpty() || only.contains("open")) {
+                    measure("open", pattern.name(), N, new Workload() {
+                        long run() {
+                            perc.reset();
+                            for (int s = 0; s < order.length; s++)
+                                perc.openSite(order[s]);
+                            return order.length;
+                        }
+                    });
+                }
+
+                final int n = N;
+                perc.reset();
+                for (int s = 0; s < FILL*order.length; s++)
+                    perc.openSite(order[s]);
+                if (only.isEmpty() || only.contains("isFull")) {
+                    measure("isFull", pattern.name(), N, new Workload() {
+                        long run() {
+                            long full = 0;
+                            for (int i = 1; i <= n; i++)
+                                for (int j = 1; j <= n; j++)
+                                    if (perc.isFull(i, j)) full++;
+                            sink += full;
+                            return (long) n*n;
+                        }
+                    });
+                }
+                if (only.isEmpty() || only.contains("percolates")) {
+                    measure("percolates", pattern.name(), N, new Workload() {
+                        long run() {
+                            perc.reset();
+                            int k = 0;
+                            while (!perc.percolates())
+                                perc.openSite(order[k++]);
+                            sink += k;
+                            return k;
+                        }
+                    });
+                }
+            }
+
+            if (only.isEmpty() || only.contains("stats")) {
+                final int n = N;
+                final int T = Math.max(1, (1 << 20) / (N*N));
+                for (final PercolationStats.Mode mode : PercolationStats.Mode.values()) {
+                    measure("stats", mode.name() + " T=" + T, N, new Workload() {
+                        long run() {
+                            PercolationStats stats = new PercolationStats(n, T, SEED, null, mode);
+                            sink += (long) (stats.mean() * 1000);
+                            return T;
+                        }
+                    });
+                }
+            }
+        }
+        if (sink == 42) System.out.println();     // never true in practice
+    }
+
+    // warm up, then time SAMPLES samples and print throughput, its
+    // spread over the samples and the bytes this thread allocated per
+    // second while doing them
+    private static void measure(String name, String variant, int N, Workload work) {
+        long warm = System.nanoTime();
+        do {
+            work.run();
+        } while (System.nanoTime() - warm < WARMUP_SECONDS * 1e9);
+
+        double[] rates = new double[SAMPLES];
+        long ops = 0;
+        long before = allocatedBytes();
+        long start = System.nanoTime();
+        for (int s = 0; s < SAMPLES; s++) {
+            long sampleOps = 0;
+            long sampleStart = System.nanoTime();
+            long elapsed;
+            do {
+                sampleOps += work.run();
+                elapsed = System.nanoTime() - sampleStart;
+            } while (elapsed < SAMPLE_SECONDS * 1e9);
+            rates[s] = sampleOps / (elapsed / 1e9);
+            ops += sampleOps;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long after = allocatedBytes();
+        double spread = 100 * StdStats.stddev(rates) / StdStats.mean(rates);
+        String alloc = before < 0 ? "n/a" : String.format("%.1f", (after - before) / seconds / 1e6);
+        System.out.printf("%-10s %-24s %6d %16.0f %8.1f %14s%n", name, variant, N, ops / seconds, spread, alloc);
+    }
+
+    // bytes allocated so far by this thread, or -1 if the JVM cannot say
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+            if (sun.isThreadAllocatedMemorySupported())
+                return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
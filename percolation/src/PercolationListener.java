@@ -0,0 +1,25 @@
+/**----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac PercolationListener.java
+ *  Execution:     none (interface)
+ *
+ *  Change feed of a Percolation system. For each open of a blocked
+ *  site the listener is told about that site, then about every site
+ *  that became full because of it, then (once only) that the system
+ *  percolates. Rows and columns are 1-based as in Percolation.
+ *
+ *----------------------------------------------------------------*/
+
+public interface PercolationListener {
+    // site (row i, column j) was blocked and is now open
+    void siteOpened(int i, int j);
+
+    // site (row i, column j) was not full and is now full
+    void siteFull(int i, int j);
+
+    // opening site (row i, column j) made the system percolate
+    void percolated(int i, int j);
+}
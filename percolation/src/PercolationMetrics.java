@@ -0,0 +1,115 @@
+/**----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac PercolationMetrics.java
+ *  Execution:     java -Dpercolation.metrics=true PercolationStats ...
+ *
+ *  Hot-path counters for Percolation and PercolationUF: opens,
+ *  opens of sites that were already open, index validations, unions,
+ *  finds and the total number of parent links followed by finds.
+ *
+ *  Counting is off unless the JVM is started with
+ *  -Dpercolation.metrics=true. Every call site is guarded by the
+ *  static final ENABLED flag, which the JIT treats as a constant, so
+ *  when it is off the counting code is compiled away entirely.
+ *
+ *  When on, counts go to one of several cache-line separated stripes
+ *  picked by thread id, so parallel trials rarely share a counter.
+ *  Read them with snapshot() or over JMX after register().
+ *
+ *----------------------------------------------------------------*/
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+public final class PercolationMetrics implements PercolationMetricsMBean {
+    public static final boolean ENABLED = Boolean.getBoolean("percolation.metrics");
+
+    static final int OPENS           = 0;
+    static final int REDUNDANT_OPENS = 1;
+    static final int VALIDATIONS     = 2;
+    static final int UNIONS          = 3;
+    static final int FINDS           = 4;
+    static final int FIND_STEPS      = 5;
+    private static final int COUNTERS = 6;
+
+    private static final int STRIPES = 16;     // power of two
+    private static final int STRIDE  = 16;     // 128 bytes between stripes
+    private static final AtomicLongArray CELLS = new AtomicLongArray(ENABLED ? STRIPES * STRIDE : 0);
+
+    public static final String OBJECT_NAME = "percolation:type=PercolationMetrics";
+
+    // add n to a counter; callers check ENABLED first
+    static void add(int counter, long n) {
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        CELLS.getAndAdd(stripe * STRIDE + counter, n);
+    }
+
+    // current total of a counter over all stripes
+    private static long total(int counter) {
+        long sum = 0;
+        for (int s = 0; s < STRIPES && ENABLED; s++)
+            sum += CELLS.get(s * STRIDE + counter);
+        return sum;
+    }
+
+    // immutable copy of all counters at one moment (counts made by
+    // other threads while it is taken may or may not be included)
+    public static class Snapshot {
+        public final long opens, redundantOpens, validations, unions, finds, findSteps;
+
+        private Snapshot() {
+            opens          = total(OPENS);
+            redundantOpens = total(REDUNDANT_OPENS);
+            validations    = total(VALIDATIONS);
+            unions         = total(UNIONS);
+            finds          = total(FINDS);
+            findSteps      = total(FIND_STEPS);
+        }
+
+        public String toString() {
+            return "opens=" + opens + " redundantOpens=" + redundantOpens + " validations=" + validations
+                 + " unions=" + unions + " finds=" + finds + " findSteps=" + findSteps;
+        }
+    }
+
+    public static Snapshot snapshot() {
+        return new Snapshot();
+    }
+
+    // zero every counter
+    public static void clear() {
+        for (int k = 0; k < CELLS.length(); k++)
+            CELLS.set(k, 0);
+    }
+
+    // expose the counters over JMX as percolation:type=PercolationMetrics
+    public static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new PercolationMetrics(), new ObjectName(OBJECT_NAME));
+        }
+        catch (JMException e) {
+            throw new IllegalStateException("cannot register " + OBJECT_NAME, e);
+        }
+    }
+
+    private PercolationMetrics() { }
+
+    public boolean isEnabled()        { return ENABLED; }
+    public long getOpens()            { return total(OPENS); }
+    public long getRedundantOpens()   { return total(REDUNDANT_OPENS); }
+    public long getValidations()      { return total(VALIDATIONS); }
+    public long getUnions()           { return total(UNIONS); }
+    public long getFinds()            { return total(FINDS); }
+    public long getFindSteps()        { return total(FIND_STEPS); }
+    public void reset()               { clear(); }
+
+    public double getAverageFindSteps() {
+        long finds = total(FINDS);
+        return finds == 0 ? 0 : total(FIND_STEPS) / (double) finds;
+    }
+}
@@ -0,0 +1,24 @@
+/**----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac PercolationMetricsMBean.java
+ *  Execution:     none (interface)
+ *
+ *  JMX view of PercolationMetrics, registered with
+ *  PercolationMetrics.register().
+ *
+ *----------------------------------------------------------------*/
+
+public interface PercolationMetricsMBean {
+    boolean isEnabled();
+    long getOpens();
+    long getRedundantOpens();
+    long getValidations();
+    long getUnions();
+    long getFinds();
+    long getFindSteps();
+    double getAverageFindSteps();
+    void reset();
+}
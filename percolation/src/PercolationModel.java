@@ -0,0 +1,30 @@
+/**----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac PercolationModel.java
+ *  Execution:     none (interface)
+ *
+ *  The operations PercolationStats needs from a percolation system,
+ *  addressed by site index rather than (row, column) so that heap
+ *  and off-heap implementations can be swapped freely.
+ *
+ *----------------------------------------------------------------*/
+
+public interface PercolationModel {
+    // number of sites in the system
+    int sites();
+
+    // open site by its index 0 to sites()-1 if it is not already
+    void openSite(int site);
+
+    // checks if site by its index is open
+    boolean isOpenSite(int site);
+
+    // checks if system percolates
+    boolean percolates();
+
+    // block every site again, as if newly constructed
+    void reset();
+}
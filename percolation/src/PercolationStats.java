@@ -1,60 +1,519 @@
 /**----------------------------------------------------------------
  *  Author:        Raymond Zhang
  *  Written:       6/25/2014
- *  Last updated:  6/25/2014
+ *  Last updated:  10/18/2026
  *
  *  Compilation:   javac PercolationStats.java
- *  Execution:     java PercolationStats
- *  
+ *  Execution:     java PercolationStats N T [threads] [seed] [mode] [backend] [checkpoint]
+ *                 java PercolationStats N -w halfWidth [seed] [mode] [backend]
+ *
  *  Perform a series of computational experiments with Percolation
  *  Prints mean, stddev, and 95% confidence interval
  *
+ *  Every trial k draws its sites from its own SplitRandom stream
+ *  forked from the seed, so a run is reproducible for a given seed
+ *  and gives identical results serially or on a ForkJoinPool.
+ *
+ *  Given -w and a confidence half-width (e.g. 0.001) instead of T,
+ *  trials run one at a time until the 95% confidence interval is that
+ *  narrow; that mode takes no threads or checkpoint.
+ *
+ *  Given a checkpoint file, finished trials are saved to it every
+ *  CHECKPOINT_SECONDS, and a run started with the same file, N, T,
+ *  seed and mode resumes after the last saved trial. Since trial k
+ *  only depends on the seed and k, the saved thresholds are all the
+ *  random state needed, and the results are identical. Trials run in
+ *  batches that double in size until one takes an eighth of that
+ *  interval, and every thread keeps one set of trial buffers for the
+ *  whole run rather than one per batch.
+ *
  *----------------------------------------------------------------*/
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
 public class PercolationStats {
-   private Percolation perc;
-   private double[] counter;
+   // how each trial chooses the next site to open
+   public enum Mode {
+     RANDOM_SITES,   // draw row and column, skip sites that are already open
+     PERMUTATION,    // open sites in the order of a shuffled permutation
+     BISECTION       // shuffle all sites, then binary search the number
+                     // open at which the grid percolates (HoshenKopelman)
+   }
+
+   // where each trial's percolation system keeps its sites
+   public enum Backend {
+     HEAP {
+       PercolationModel create(int N) { return new Percolation(N); }
+       PercolationModel resize(PercolationModel perc, int N) {
+         ((Percolation) perc).reset(N);
+         return perc;
+       }
+     },
+     MAPPED {           // memory-mapped temporary file, see MappedPercolation
+       PercolationModel create(int N) { return new MappedPercolation(N); }
+       void release(PercolationModel perc) { ((MappedPercolation) perc).close(); }
+     };
+
+     abstract PercolationModel create(int N);
+
+     void release(PercolationModel perc) { }
+
+     // a system for an N-by-N grid, reusing perc's storage if possible
+     PercolationModel resize(PercolationModel perc, int N) {
+       release(perc);
+       return create(N);
+     }
+   }
+
+   private static final int MIN_TRIALS = 30;  // before a half-width is trusted
+   private static final int CHECKPOINT_MAGIC   = 0x50455243;  // "PERC"
+   private static final int CHECKPOINT_VERSION = 1;
+   private static final int CHECKPOINT_HEADER  = 32;          // bytes before the thresholds
+   private static final long CHECKPOINT_SECONDS = 60;
+
+   private final int N;
+   private final SplitRandom random;
+   private double[] counter;                  // per-trial thresholds, null if sequential
+   private ConcurrentHashMap<Thread, TrialRunner> held;  // runners kept for a checkpointed run
    private int totalruns;
-   
+   private double mean;
+   private double stddev;
+
    public PercolationStats(int N, int T) {    // perform T independent computational experiments on an N-by-N grid
+     this(N, T, StdRandom.uniform(Integer.MAX_VALUE));
+   }
+
+   public PercolationStats(int N, int T, long seed) {  // same experiments, reproducible for a given seed
+     this(N, T, seed, null);
+   }
+
+   // same experiments, split across the worker threads of pool
+   // (runs serially in the calling thread if pool is null)
+   public PercolationStats(int N, int T, long seed, ForkJoinPool pool) {
+     this(N, T, seed, pool, Mode.RANDOM_SITES);
+   }
+
+   public PercolationStats(int N, int T, long seed, ForkJoinPool pool, Mode mode) {
+     this(N, T, seed, pool, mode, Backend.HEAP);
+   }
+
+   public PercolationStats(int N, int T, long seed, ForkJoinPool pool, Mode mode, Backend backend) {
+     this(N, T, seed, pool, mode, backend, null);
+   }
+
+   // same experiments, saving finished trials to checkpoint (if not
+   // null) and resuming from it if it already holds some
+   public PercolationStats(int N, int T, long seed, ForkJoinPool pool, Mode mode, Backend backend, File checkpoint) {
      if (N <= 0 || T <= 0) throw new IllegalArgumentException("T and N cannot be less than 1");
+     if (mode == null || backend == null) throw new NullPointerException("mode and backend cannot be null");
+     this.N    = N;
+     random    = new SplitRandom(seed);
      totalruns = T;
      counter   = new double[T];
-     for (int k = 0; k < T; k++) {
-       //int i, j;
-       perc       = new Percolation(N);
-       counter[k] = 0;
+     if (checkpoint == null)
+       runTrials(0, T, pool, mode, backend);
+     else {
+       int done = readCheckpoint(checkpoint, seed, mode);
+       int batch = pool == null ? 1 : pool.getParallelism();
+       long interval = CHECKPOINT_SECONDS * 1000000000L;
+       long saved = System.nanoTime();
+       held = new ConcurrentHashMap<Thread, TrialRunner>();
+       try {
+         while (done < T) {
+           int next = (int) Math.min(T, (long) done + batch);
+           long start = System.nanoTime();
+           runTrials(done, next, pool, mode, backend);
+           done = next;
+           long now = System.nanoTime();
+           if (now - start < interval / 8)    // batch barriers stay rare
+             batch = (int) Math.min(T, 2L * batch);
+           if (done == T || now - saved >= interval) {
+             writeCheckpoint(checkpoint, seed, mode, done);
+             saved = System.nanoTime();
+           }
+         }
+       }
+       finally {
+         for (TrialRunner runner : held.values())
+           runner.release();
+         held = null;
+       }
+     }
+     mean   = StdStats.mean(counter);
+     stddev = StdStats.stddev(counter);
+   }
+
+   // run trials lo (inclusive) through hi (exclusive), split across pool
+   // or serially in this thread if pool is null
+   private void runTrials(int lo, int hi, ForkJoinPool pool, Mode mode, Backend backend) {
+     if (pool == null) {
+       runTrials(lo, hi, mode, backend);
+       return;
+     }
+     int grain = Math.max(1, (hi - lo) / (pool.getParallelism() * 8));
+     TrialTask task = new TrialTask(lo, hi, grain, mode, backend);
+     if (ForkJoinTask.getPool() == pool)
+       task.invoke();
+     else
+       pool.invoke(task);
+   }
+
+   // load the thresholds saved in file into counter, returns how many
+   // there are (0 if the file does not exist yet)
+   private int readCheckpoint(File file, long seed, Mode mode) {
+     if (!file.exists())
+       return 0;
+     try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+       ByteBuffer buf = ByteBuffer.allocate((int) channel.size());
+       while (buf.hasRemaining() && channel.read(buf) >= 0) { }
+       buf.flip();
+       if (buf.remaining() < CHECKPOINT_HEADER || buf.getInt() != CHECKPOINT_MAGIC || buf.getInt() != CHECKPOINT_VERSION)
+         throw new IllegalArgumentException(file + " is not a PercolationStats checkpoint");
+       int n = buf.getInt(), t = buf.getInt();
+       long s = buf.getLong();
+       int m = buf.getInt(), done = buf.getInt();
+       if (n != N || t != totalruns || s != seed || m != mode.ordinal())
+         throw new IllegalArgumentException(file + " was written for a different N, T, seed or mode");
+       if (done < 0 || done > totalruns || buf.remaining() < 8L*done)
+         throw new IllegalArgumentException(file + " is truncated");
+       for (int k = 0; k < done; k++)
+         counter[k] = buf.getDouble();
+       return done;
+     }
+     catch (IOException e) {
+       throw new IllegalStateException("cannot read checkpoint " + file, e);
+     }
+   }
+
+   // save the first done thresholds to a temporary file, then move it
+   // over the checkpoint so a crash never leaves a partial file behind
+   private void writeCheckpoint(File file, long seed, Mode mode, int done) {
+     ByteBuffer buf = ByteBuffer.allocate(CHECKPOINT_HEADER + 8*done);
+     buf.putInt(CHECKPOINT_MAGIC).putInt(CHECKPOINT_VERSION).putInt(N).putInt(totalruns);
+     buf.putLong(seed).putInt(mode.ordinal()).putInt(done);
+     for (int k = 0; k < done; k++)
+       buf.putDouble(counter[k]);
+     buf.flip();
+     Path target = file.toPath();
+     Path temp   = target.resolveSibling(target.getFileName() + ".tmp");
+     try {
+       try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+               StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+         while (buf.hasRemaining())
+           channel.write(buf);
+         channel.force(true);
+       }
+       Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+     }
+     catch (IOException e) {
+       throw new IllegalStateException("cannot write checkpoint " + file, e);
+     }
+   }
+
+   // run trials one at a time until the 95% confidence interval is no
+   // wider than mean +/- halfWidth (and at least MIN_TRIALS have run);
+   // the mean and variance are kept online, so memory is O(1) in T
+   public PercolationStats(int N, double halfWidth, long seed, Mode mode, Backend backend) {
+     if (N <= 0) throw new IllegalArgumentException("N cannot be less than 1");
+     if (!(halfWidth > 0)) throw new IllegalArgumentException("halfWidth must be positive");
+     if (mode == null || backend == null) throw new NullPointerException("mode and backend cannot be null");
+     this.N = N;
+     random = new SplitRandom(seed);
+     TrialRunner runner = acquire(mode, backend);
+     double m2 = 0;                           // sum of squared deviations (Welford)
+     try {
+       while (totalruns < MIN_TRIALS || 1.96*Math.sqrt(m2/(totalruns-1)/totalruns) > halfWidth) {
+         double x = runner.run(random.fork(totalruns));
+         totalruns++;
+         double delta = x - mean;
+         mean += delta/totalruns;
+         m2   += delta*(x - mean);
+       }
+     }
+     finally {
+       release(runner);
+     }
+     stddev = Math.sqrt(m2/(totalruns-1));
+   }
+
+   // run trials lo (inclusive) through hi (exclusive)
+   private void runTrials(int lo, int hi, Mode mode, Backend backend) {
+     TrialRunner runner = acquire(mode, backend);
+     try {
+       for (int k = lo; k < hi; k++)
+         counter[k] = runner.run(random.fork(k));
+     }
+     finally {
+       release(runner);
+     }
+   }
+
+   // a pool whose workers keep one TrialRunner each for as long as the
+   // pool lives, so many runs on it (see PercolationSweep) reuse the
+   // largest buffers instead of reallocating them for every range of
+   // trials; shutting the pool down lets the buffers go
+   static ForkJoinPool reusingPool(int threads) {
+     return new ForkJoinPool(threads, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+       public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+         return new RunnerThread(pool);
+       }
+     }, null, false);
+   }
+
+   // worker of a reusingPool and the runner it keeps
+   private static class RunnerThread extends ForkJoinWorkerThread {
+     private TrialRunner runner;
+
+     private RunnerThread(ForkJoinPool pool) {
+       super(pool);
+     }
+   }
+
+   // a runner for this grid; workers of a reusingPool using heap systems
+   // reuse theirs, threads of a checkpointed run keep one until it ends,
+   // and any other thread gets a new one
+   private TrialRunner acquire(Mode mode, Backend backend) {
+     Thread thread = Thread.currentThread();
+     if (backend == Backend.HEAP && thread instanceof RunnerThread) {
+       RunnerThread worker = (RunnerThread) thread;
+       if (worker.runner == null)
+         worker.runner = new TrialRunner(N, mode, backend);
+       else
+         worker.runner.prepare(N, mode, backend);
+       return worker.runner;
+     }
+     if (held == null)
+       return new TrialRunner(N, mode, backend);
+     TrialRunner runner = held.get(thread);
+     if (runner == null) {
+       runner = new TrialRunner(N, mode, backend);
+       held.put(thread, runner);
+     }
+     return runner;
+   }
+
+   // release a runner unless its worker thread or this run keeps it
+   private void release(TrialRunner runner) {
+     Thread thread = Thread.currentThread();
+     if (thread instanceof RunnerThread && ((RunnerThread) thread).runner == runner)
+       return;
+     if (held != null && held.get(thread) == runner)
+       return;
+     runner.release();
+   }
+
+   // the buffers one thread needs to run trials; a runner is reset and
+   // reused by every trial it runs, and prepare() points it at another
+   // grid size or mode keeping whatever buffers are large enough
+   private static class TrialRunner {
+     private int N;
+     private Mode mode;
+     private Backend backend;
+     private PercolationModel perc;
+     private int percN;                       // grid size perc was built for
+     private int[] order;                     // length may exceed N*N
+     private int[] rank;
+     private HoshenKopelman hk;
+     private int hkN;                         // grid size hk was built for
+
+     private TrialRunner(int N, Mode mode, Backend backend) {
+       prepare(N, mode, backend);
+     }
+
+     private void prepare(int N, Mode mode, Backend backend) {
+       if (mode == Mode.BISECTION) {          // needs no PercolationModel
+         if (rank == null || rank.length < N*N)
+           rank = new int[N*N];
+         if (hk == null || hkN != N) {
+           hk  = new HoshenKopelman(N);
+           hkN = N;
+         }
+       }
+       else if (perc == null || this.backend != backend) {
+         if (perc != null)
+           this.backend.release(perc);
+         perc  = backend.create(N);
+         percN = N;
+       }
+       else if (percN != N) {
+         perc  = backend.resize(perc, N);
+         percN = N;
+       }
+       if (mode != Mode.RANDOM_SITES && (order == null || order.length < N*N))
+         order = new int[N*N];
+       this.N       = N;
+       this.mode    = mode;
+       this.backend = backend;
+     }
+
+     private void release() {
+       if (perc != null)
+         backend.release(perc);
+     }
+
+     // one trial drawing from rng, returns the fraction of sites open
+     // when the system first percolates
+     private double run(SplitRandom rng) {
+       switch (mode) {
+         case PERMUTATION: return permutationTrial(rng);
+         case BISECTION:   return bisectionTrial(rng);
+         default:          return trial(rng);
+       }
+     }
+
+     // open random sites until the system percolates
+     private double trial(SplitRandom rng) {
+       double opened = 0;
+       perc.reset();
        while (!perc.percolates()) {
-         int i = StdRandom.uniform(N)+1;  // set random row i
-         int j = StdRandom.uniform(N)+1;  // set random column j
-         if (!perc.isOpen(i, j)) {
-           perc.open(i, j);
-           counter[k]++;
+         int i = rng.uniform(N);  // set random row i
+         int j = rng.uniform(N);  // set random column j
+         int site = i*N+j;
+         if (!perc.isOpenSite(site)) {
+           perc.openSite(site);
+           opened++;
          }
        }
-       counter[k] = counter[k]/(N*N);
+       return opened/((double) N*N);
+     }
+
+     // open sites in shuffled order until the system percolates; the
+     // shuffle is done lazily one swap per opened site
+     private double permutationTrial(SplitRandom rng) {
+       int sites = N*N;
+       perc.reset();
+       for (int s = 0; s < sites; s++)  // restart from the identity so the
+         order[s] = s;                  // result depends only on the stream
+       int opened = 0;
+       while (!perc.percolates()) {
+         int r = opened + rng.uniform(sites - opened);
+         int site = order[r];
+         order[r] = order[opened];
+         order[opened] = site;
+         perc.openSite(site);
+         opened++;
+       }
+       return opened/((double) N*N);
+     }
+
+     // shuffle all sites the same way permutationTrial does, then binary
+     // search the smallest prefix of the shuffle that percolates
+     private double bisectionTrial(SplitRandom rng) {
+       int sites = N*N;
+       for (int s = 0; s < sites; s++)
+         order[s] = s;
+       for (int m = 0; m < sites; m++) {
+         int r = m + rng.uniform(sites - m);
+         int site = order[r];
+         order[r] = order[m];
+         order[m] = site;
+         rank[site] = m;
+       }
+       int lo = 0, hi = sites;          // lo never percolates, hi always does
+       while (hi - lo > 1) {
+         int mid = (lo + hi) >>> 1;
+         if (hk.percolates(rank, mid)) hi = mid;
+         else                          lo = mid;
+       }
+       return hi/((double) N*N);
+     }
+   }
+
+   // splits a range of trials in half until it is no larger than grain
+   private class TrialTask extends RecursiveAction {
+     private static final long serialVersionUID = 1L;
+
+     private final int lo, hi, grain;
+     private final Mode mode;
+     private final Backend backend;
+
+     private TrialTask(int lo, int hi, int grain, Mode mode, Backend backend) {
+       this.lo      = lo;
+       this.hi      = hi;
+       this.grain   = grain;
+       this.mode    = mode;
+       this.backend = backend;
+     }
+
+     protected void compute() {
+       if (hi - lo <= grain) {
+         runTrials(lo, hi, mode, backend);
+         return;
+       }
+       int mid = (lo + hi) >>> 1;
+       invokeAll(new TrialTask(lo, mid, grain, mode, backend),
+                 new TrialTask(mid, hi, grain, mode, backend));
      }
    }
 
    public double mean() {                   // sample mean of percolation threshold
-     return StdStats.mean(counter);
+     return mean;
    }
 
    public double stddev() {                 // sample standard deviation of percolation threshold
-     return StdStats.stddev(counter);
+     return stddev;
+   }
+
+   public int trials() {                    // number of experiments performed
+     return totalruns;
    }
 
    public double confidenceLo() {           // returns lower bound of the 95% confidence interval
      return mean()-((1.96*stddev())/Math.sqrt(totalruns));
    }
-   
+
    public double confidenceHi() {           // returns upper bound of the 95% confidence interval
      return mean()+((1.96*stddev())/Math.sqrt(totalruns));
    }
 
    public static void main(String[] args) {   // test client, described below
-     PercolationStats percstats = new PercolationStats(Integer.parseInt(args[0]), Integer.parseInt(args[1]));
+     int N = Integer.parseInt(args[0]);
+     PercolationStats percstats;
+     Stopwatch watch = new Stopwatch();
+     if (args[1].equals("-w")) {              // N -w halfWidth [seed] [mode] [backend]
+       if (args.length > 6) throw new IllegalArgumentException("usage: PercolationStats N -w halfWidth [seed] [mode] [backend]");
+       double halfWidth = Double.parseDouble(args[2]);
+       long seed    = args.length > 3 ? Long.parseLong(args[3]) : StdRandom.uniform(Integer.MAX_VALUE);
+       Mode mode    = args.length > 4 ? Mode.valueOf(args[4]) : Mode.RANDOM_SITES;
+       Backend backend = args.length > 5 ? Backend.valueOf(args[5]) : Backend.HEAP;
+       percstats = new PercolationStats(N, halfWidth, seed, mode, backend);
+       report(percstats, mode, watch);
+       return;
+     }
+     if (args.length > 7) throw new IllegalArgumentException("usage: PercolationStats N T [threads] [seed] [mode] [backend] [checkpoint]");
+     int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+     long seed   = args.length > 3 ? Long.parseLong(args[3]) : StdRandom.uniform(Integer.MAX_VALUE);
+     Mode mode   = args.length > 4 ? Mode.valueOf(args[4]) : Mode.RANDOM_SITES;
+     Backend backend = args.length > 5 ? Backend.valueOf(args[5]) : Backend.HEAP;
+     File checkpoint = args.length > 6 ? new File(args[6]) : null;
+     if (threads > 1) {
+       ForkJoinPool pool = new ForkJoinPool(threads);
+       percstats = new PercolationStats(N, Integer.parseInt(args[1]), seed, pool, mode, backend, checkpoint);
+       pool.shutdown();
+     }
+     else
+       percstats = new PercolationStats(N, Integer.parseInt(args[1]), seed, null, mode, backend, checkpoint);
+     report(percstats, mode, watch);
+   }
+
+   // print the statistics of a finished run
+   private static void report(PercolationStats percstats, Mode mode, Stopwatch watch) {
      System.out.println("Mean: " + percstats.mean() + "\nStddev: " + percstats.stddev());
      System.out.println("95% confidence interv: " + percstats.confidenceLo() + ", " + percstats.confidenceHi());
+     System.out.println("Elapsed: " + watch.elapsedTime() + " s (" + mode + ", " + percstats.trials() + " trials)");
+     if (PercolationMetrics.ENABLED)
+       System.out.println("Metrics: " + PercolationMetrics.snapshot());
    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+/**----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac PercolationSweep.java
+ *  Execution:     java PercolationSweep threads seed mode N:T [N:T ...]
+ *
+ *  Runs PercolationStats for many (N, T) pairs in one JVM on one
+ *  shared ForkJoinPool. Every pair is a job on the pool whose trials
+ *  are in turn split across the pool. The pool is a reusingPool, so
+ *  its workers keep their trial buffers between jobs of any size until
+ *  the sweep ends. Each job's CSV row is printed as soon as it
+ *  finishes, so rows come out in completion order, not argument order.
+ *
+ *  % java PercolationSweep 8 42 PERMUTATION 64:10000 128:5000 256:1000
+ *  N,T,mean,stddev,confidenceLo,confidenceHi,seconds
+ *  64,10000,0.59...
+ *
+ *----------------------------------------------------------------*/
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+
+public class PercolationSweep {
+
+    // one (N, T) experiment and how long it took
+    private static class Job implements Callable<String> {
+        private final int N, T;
+        private final long seed;
+        private final ForkJoinPool pool;
+        private final PercolationStats.Mode mode;
+
+        private Job(int N, int T, long seed, ForkJoinPool pool, PercolationStats.Mode mode) {
+            this.N    = N;
+            this.T    = T;
+            this.seed = seed;
+            this.pool = pool;
+            this.mode = mode;
+        }
+
+        public String call() {
+            long start = System.nanoTime();
+            PercolationStats stats = new PercolationStats(N, T, seed, pool, mode);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return N + "," + T + "," + stats.mean() + "," + stats.stddev() + ","
+                 + stats.confidenceLo() + "," + stats.confidenceHi() + "," + seconds;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 4) throw new IllegalArgumentException("usage: PercolationSweep threads seed mode N:T [N:T ...]");
+        int threads = Integer.parseInt(args[0]);
+        long seed   = Long.parseLong(args[1]);
+        PercolationStats.Mode mode = PercolationStats.Mode.valueOf(args[2]);
+
+        ForkJoinPool pool = PercolationStats.reusingPool(threads);
+        CompletionService<String> done = new ExecutorCompletionService<String>(pool);
+        int jobs = 0;
+        for (int a = 3; a < args.length; a++) {
+            String[] pair = args[a].split(":");
+            if (pair.length != 2) throw new IllegalArgumentException("expected N:T but got " + args[a]);
+            done.submit(new Job(Integer.parseInt(pair[0]), Integer.parseInt(pair[1]), seed, pool, mode));
+            jobs++;
+        }
+
+        System.out.println("N,T,mean,stddev,confidenceLo,confidenceHi,seconds");
+        System.out.flush();
+        try {
+            for (int k = 0; k < jobs; k++) {
+                System.out.println(done.take().get());
+                System.out.flush();
+            }
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("sweep job failed", e.getCause());
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -5,5 +5,28 @@ public class PercolationTest {
       System.out.println(StdRandom.uniform(16));
       System.out.println(StdRandom.uniform(16));
       System.out.println(StdRandom.uniform(16));
+      checkSweepReuse();
+    }
+
+    // run a large N and then a small N on one reusingPool, as a sweep
+    // does, in every mode, and check each run matches a fresh serial
+    // one; a worker's buffers from the large grid must not leak into
+    // the small one
+    private static void checkSweepReuse() {
+      java.util.concurrent.ForkJoinPool pool = PercolationStats.reusingPool(2);
+      try {
+        for (PercolationStats.Mode mode : PercolationStats.Mode.values()) {
+          for (int N : new int[] { 64, 8 }) {
+            double pooled = new PercolationStats(N, 20, 42, pool, mode).mean();
+            double serial = new PercolationStats(N, 20, 42, null, mode).mean();
+            if (pooled != serial)
+              throw new IllegalStateException(mode + " N=" + N + ": " + pooled + " != " + serial);
+          }
+        }
+      }
+      finally {
+        pool.shutdown();
+      }
+      System.out.println("sweep reuse ok");
     }
 }
\ No newline at end of file
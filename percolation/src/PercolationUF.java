@@ -0,0 +1,87 @@
+/**----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac PercolationUF.java
+ *  Execution:     none (library)
+ *
+ *  Union-find specialized for Percolation: union by rank, path
+ *  halving on find, an int[] of parents and a byte[] of ranks.
+ *  Indices are not bounds checked here since Percolation already
+ *  validates every site it passes in. reset() puts every site back
+ *  in its own component so one instance can serve many trials, and
+ *  reset(n) does the same for the first n sites of the arrays.
+ *
+ *----------------------------------------------------------------*/
+
+public class PercolationUF {
+    private final int[] parent;    // parent[p] = parent of p, roots point to themselves
+    private final byte[] rank;     // rank[p] = upper bound on height of tree rooted at p
+    private int count;             // sites in use, at most parent.length
+
+    // create n sites 0 to n-1, each in its own component
+    public PercolationUF(int n) {
+        if (n < 0) throw new IllegalArgumentException("n cannot be negative");
+        parent = new int[n];
+        rank   = new byte[n];
+        reset(n);
+    }
+
+    // put every site back in its own component
+    public void reset() {
+        reset(count);
+    }
+
+    // use sites 0 to n-1 only, each in its own component
+    public void reset(int n) {
+        if (n < 0 || n > parent.length) throw new IllegalArgumentException("n must be between 0 and " + parent.length);
+        for (int p = 0; p < n; p++)
+            parent[p] = p;
+        java.util.Arrays.fill(rank, 0, n, (byte) 0);
+        count = n;
+    }
+
+    // number of sites
+    public int size() {
+        return count;
+    }
+
+    // root of the component containing p, halving the path on the way up
+    public int find(int p) {
+        int steps = 0;
+        while (p != parent[p]) {
+            parent[p] = parent[parent[p]];
+            p = parent[p];
+            steps++;
+        }
+        if (PercolationMetrics.ENABLED) {
+            PercolationMetrics.add(PercolationMetrics.FINDS, 1);
+            PercolationMetrics.add(PercolationMetrics.FIND_STEPS, steps);
+        }
+        return p;
+    }
+
+    // are p and q in the same component?
+    public boolean connected(int p, int q) {
+        return find(p) == find(q);
+    }
+
+    // merge the components containing p and q, returns the new root
+    public int union(int p, int q) {
+        if (PercolationMetrics.ENABLED)
+            PercolationMetrics.add(PercolationMetrics.UNIONS, 1);
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP == rootQ)
+            return rootP;
+        if (rank[rootP] < rank[rootQ]) {
+            parent[rootP] = rootQ;
+            return rootQ;
+        }
+        parent[rootQ] = rootP;
+        if (rank[rootP] == rank[rootQ])
+            rank[rootP]++;
+        return rootP;
+    }
+}
@@ -14,6 +14,9 @@
  *  open sites (that aren't full) in white, and blocked sites in black,
  *  with with site (1, 1) in the upper left-hand corner.
  *
+ *  The grid is drawn once; after that a SiteDrawer listening to the
+ *  Percolation redraws only the sites each open changes.
+ *
  ****************************************************************************/
 
 import java.awt.Font;
@@ -49,13 +52,54 @@ public class PercolationVisualizer {
             }
         }
 
-        // write status text
+        drawStatus(N, opened, perc.percolates());
+    }
+
+    // write status text, erasing whatever was there before
+    private static void drawStatus(int N, int opened, boolean percolates) {
+        StdDraw.setPenColor(StdDraw.WHITE);
+        StdDraw.filledRectangle(N/2.0, -N*.025, N/2.0, N*.025);
         StdDraw.setFont(new Font("SansSerif", Font.PLAIN, 12));
         StdDraw.setPenColor(StdDraw.BLACK);
         StdDraw.text(.25*N, -N*.025, opened + " open sites");
-        if (perc.percolates()) StdDraw.text(.75*N, -N*.025, "percolates");
-        else                   StdDraw.text(.75*N, -N*.025, "does not percolate");
+        if (percolates) StdDraw.text(.75*N, -N*.025, "percolates");
+        else            StdDraw.text(.75*N, -N*.025, "does not percolate");
+    }
+
+    // draws only the sites reported by a Percolation's change feed;
+    // start it with the grid already drawn by draw()
+    public static class SiteDrawer implements PercolationListener {
+        private final int N;
+        private int opened;
+        private boolean percolates;
+
+        public SiteDrawer(Percolation perc, int N) {
+            this.N = N;
+            for (int row = 1; row <= N; row++) {
+                for (int col = 1; col <= N; col++) {
+                    if (perc.isOpen(row, col))
+                        opened++;
+                }
+            }
+            percolates = perc.percolates();
+        }
+
+        public void siteOpened(int i, int j) {
+            opened++;
+            StdDraw.setPenColor(StdDraw.WHITE);
+            StdDraw.filledSquare(j - 0.5, N - i + 0.5, 0.45);
+            drawStatus(N, opened, percolates);
+        }
 
+        public void siteFull(int i, int j) {
+            StdDraw.setPenColor(StdDraw.BOOK_LIGHT_BLUE);
+            StdDraw.filledSquare(j - 0.5, N - i + 0.5, 0.45);
+        }
+
+        public void percolated(int i, int j) {
+            percolates = true;
+            drawStatus(N, opened, percolates);
+        }
     }
 
     public static void main(String[] args) {
@@ -68,12 +112,12 @@ public class PercolationVisualizer {
         // repeatedly read in sites to open and draw resulting system
         Percolation perc = new Percolation(N);
         draw(perc, N);
+        perc.setListener(new SiteDrawer(perc, N));
         StdDraw.show(DELAY);
         while (!in.isEmpty()) {
             int i = in.readInt();
             int j = in.readInt();
             perc.open(i, j);
-            draw(perc, N);
             StdDraw.show(DELAY);
         }
     }
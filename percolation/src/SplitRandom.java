@@ -0,0 +1,52 @@
+/**----------------------------------------------------------------
+ *  Author:        Raymond Zhang
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac SplitRandom.java
+ *  Execution:     none (library)
+ *
+ *  A small splittable pseudo-random generator (SplitMix64). Each
+ *  call to fork(stream) returns an independent generator, so every
+ *  percolation trial can draw from its own stream no matter which
+ *  thread ends up running it.
+ *
+ *----------------------------------------------------------------*/
+
+public class SplitRandom {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private long state;
+
+    public SplitRandom(long seed) {
+        state = seed;
+    }
+
+    // independent generator for the given stream number; does not
+    // advance this generator, so fork(k) is the same for every caller
+    public SplitRandom fork(long stream) {
+        return new SplitRandom(mix64(state + (stream + 1) * GOLDEN_GAMMA) ^ GOLDEN_GAMMA);
+    }
+
+    // next 64 random bits
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    // uniformly random integer in [0, n)
+    public int uniform(int n) {
+        if (n <= 0) throw new IllegalArgumentException("n must be positive");
+        int bits, value;
+        do {                                // reject the biased tail
+            bits  = (int) (nextLong() >>> 33);
+            value = bits % n;
+        } while (bits - value + (n-1) < 0);
+        return value;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}